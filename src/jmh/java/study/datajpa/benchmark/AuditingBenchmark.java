@@ -0,0 +1,57 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * datajpa.auditing.auditor 별 대량 저장 비용. 저장은 롤백해서 매번 같은 조건으로 측정한다.
+ * 여러 스레드에서 돌리면(-t) uuid-per-entity 의 SecureRandom 경합이 드러난다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuditingBenchmark {
+
+    private static final int SAVE_ROWS = 1000;
+
+    @Param({"uuid-per-entity", "per-transaction", "none"})
+    String auditor;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readWrite;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("datajpa.auditing.auditor=" + auditor);
+        memberRepository = context.getBean(MemberRepository.class);
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_ROWS)
+    public Object saveAllBatched() {
+        return readWrite.execute(status -> {
+            List<Member> members = new ArrayList<>(SAVE_ROWS);
+            for (int i = 0; i < SAVE_ROWS; i++) {
+                members.add(Member.builder().username("audit" + i).age(i % 100).build());
+            }
+            int saved = memberRepository.saveAllBatched(members, 100);
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+}
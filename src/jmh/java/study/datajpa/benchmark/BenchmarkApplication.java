@@ -0,0 +1,37 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. 외부 H2 서버 대신 포크마다 인메모리 H2 를 사용하고 SQL 로그는 끈다.
+ */
+public final class BenchmarkApplication {
+
+    private static final String[] DEFAULT_PROPERTIES = {
+            "spring.main.banner-mode=off",
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "logging.level.root=warn",
+            "logging.level.org.hibernate.SQL=warn",
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return builder(properties).web(WebApplicationType.NONE).run();
+    }
+
+    public static SpringApplicationBuilder builder(String... properties) {
+        List<String> merged = new ArrayList<>(Arrays.asList(DEFAULT_PROPERTIES));
+        merged.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties(merged.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,185 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.metrics.LatencyHistogram;
+import study.datajpa.metrics.PoolMetrics;
+import study.datajpa.repository.MemberRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 인메모리 H2 로 애플리케이션을 띄우고 동시 접속 수를 두 배씩 늘려가며 엔드포인트를 호출한다.
+ * 처리량이 더 이상 늘지 않는 지점(포화 지점)과 그때의 커넥션 풀 대기 상태를 출력한다.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="maxConcurrency=64 seconds=10 profiles=pool"
+ * </pre>
+ * <p>
+ * 옵션: paths(쉼표 구분, {id} 는 임의 회원 id), startConcurrency, maxConcurrency, seconds, profiles, 그 외 key=value 는
+ * 애플리케이션 설정으로 전달된다.
+ * compare(쉼표 구분 경로)를 지정하면 동시 접속을 늘리지 않고 maxConcurrency 에서 경로별 처리량만 비교한다.
+ */
+public class LoadTestHarness {
+
+    private static final double SATURATION_GAIN = 1.05;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> paths = Arrays.asList(options.getOrDefault("paths", "/members,/members/{id},/members2/{id}").split(","));
+        int startConcurrency = Integer.parseInt(options.getOrDefault("startConcurrency", "1"));
+        int maxConcurrency = Integer.parseInt(options.getOrDefault("maxConcurrency", "64"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+
+        List<String> properties = new ArrayList<>();
+        properties.add("server.port=0");
+        options.forEach((key, value) -> {
+            if (key.contains(".")) {
+                properties.add(key + "=" + value);
+            }
+        });
+
+        SpringApplicationBuilder builder = BenchmarkApplication.builder(properties.toArray(new String[0]))
+                .web(WebApplicationType.SERVLET);
+        if (options.containsKey("profiles")) {
+            builder.profiles(options.get("profiles").split(","));
+        }
+        ConfigurableApplicationContext context = builder.run();
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Long> ids = context.getBean(MemberRepository.class).findAll().stream()
+                    .map(Member::getId)
+                    .collect(Collectors.toList());
+            PoolMetrics poolMetrics = context.getBean(PoolMetrics.class);
+
+            if (options.containsKey("compare")) {
+                compare(baseUrl, Arrays.asList(options.get("compare").split(",")), ids, maxConcurrency, seconds, poolMetrics);
+                return;
+            }
+
+            System.out.printf("%-12s %12s %10s %10s %10s %12s%n",
+                    "concurrency", "req/s", "p50(ms)", "p99(ms)", "errors", "max pending");
+            double previousThroughput = 0;
+            Integer saturation = null;
+            for (int concurrency = startConcurrency; concurrency <= maxConcurrency; concurrency *= 2) {
+                Result result = run(baseUrl, paths, ids, concurrency, seconds, poolMetrics);
+                System.out.printf("%-12d %12.1f %10.2f %10.2f %10d %12d%n",
+                        concurrency, result.throughput, result.latency.getPercentileMillis(50),
+                        result.latency.getPercentileMillis(99), result.errors.sum(), result.maxPending);
+
+                if (saturation == null && previousThroughput > 0 && result.throughput < previousThroughput * SATURATION_GAIN) {
+                    saturation = concurrency / 2;
+                }
+                previousThroughput = Math.max(previousThroughput, result.throughput);
+            }
+            System.out.println(saturation != null
+                    ? "포화 지점: 동시 접속 약 " + saturation + " (이후 처리량 증가 5% 미만)"
+                    : "최대 동시 접속 " + maxConcurrency + " 까지 포화되지 않았다.");
+            for (PoolMetrics.Pool pool : poolMetrics.getPools()) {
+                System.out.printf("pool %s : 커넥션 획득 p99 %.2fms, 사용 p99 %.2fms, 타임아웃 %d (전체 구간 누적)%n",
+                        pool.getName(), pool.getAcquire().getPercentileMillis(99),
+                        pool.getUsage().getPercentileMillis(99), pool.getTimeouts().sum());
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void compare(String baseUrl, List<String> paths, List<Long> ids, int concurrency, int seconds,
+                                PoolMetrics poolMetrics) throws InterruptedException {
+        System.out.printf("%-30s %12s %10s %10s %10s%n", "path (concurrency " + concurrency + ")", "req/s", "p50(ms)", "p99(ms)", "errors");
+        for (String path : paths) {
+            Result result = run(baseUrl, Collections.singletonList(path), ids, concurrency, seconds, poolMetrics);
+            System.out.printf("%-30s %12.1f %10.2f %10.2f %10d%n", path, result.throughput,
+                    result.latency.getPercentileMillis(50), result.latency.getPercentileMillis(99), result.errors.sum());
+        }
+    }
+
+    private static Result run(String baseUrl, List<String> paths, List<Long> ids, int concurrency, int seconds,
+                              PoolMetrics poolMetrics) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Result result = new Result();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger running = new AtomicInteger(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        String path = paths.get(random.nextInt(paths.size()))
+                                .replace("{id}", String.valueOf(ids.get(random.nextInt(ids.size()))));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                result.errors.increment();
+                            }
+                        } catch (Exception e) {
+                            result.errors.increment();
+                        }
+                        result.latency.record(System.nanoTime() - start);
+                    }
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        while (running.get() > 0) {
+            for (PoolMetrics.Pool pool : poolMetrics.getPools()) {
+                result.maxPending = Math.max(result.maxPending, pool.getStats().getPendingThreads());
+            }
+            Thread.sleep(100);
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdownNow();
+
+        result.throughput = result.latency.getCount() / (elapsed / 1_000_000_000.0);
+        return result;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index > 0) {
+                options.put(arg.substring(0, index).replaceFirst("^--", ""), arg.substring(index + 1));
+            }
+        }
+        return options;
+    }
+
+    private static class Result {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private int maxPending;
+        private double throughput;
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.OptimisticRetryExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 회원의 나이를 여러 스레드가 동시에 올린다. @Version + 재시도와 select for update 의 처리량 비교.
+ * hotRows 를 늘리면 충돌이 줄어든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class MemberContentionBenchmark {
+
+    @Param({"1", "16"})
+    int hotRows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    OptimisticRetryExecutor retryExecutor;
+    TransactionTemplate readWrite;
+    Long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        retryExecutor = new OptimisticRetryExecutor(transactionManager, 1000, 1);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        ids = new Long[hotRows];
+        for (int i = 0; i < hotRows; i++) {
+            ids[i] = memberRepository.save(Member.builder().username("hot" + i).age(0).build()).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("optimistic conflicts = " + retryExecutor.getConflicts());
+        context.close();
+    }
+
+    @Benchmark
+    public Object optimistic(ThreadState state) {
+        Long id = state.next(ids);
+        return retryExecutor.execute(status -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() + 1);
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object pessimistic(ThreadState state) {
+        Long id = state.next(ids);
+        return readWrite.execute(status -> {
+            Member member = memberRepository.findByIdForUpdate(id).get();
+            member.setAge(member.getAge() + 1);
+            return null;
+        });
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int next;
+
+        Long next(Long[] ids) {
+            return ids[next++ % ids.length];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberFetchPlan;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.specification.MemberSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepository 의 주요 조회/저장 경로. 저장과 bulk update 는 롤백해서 매 호출마다 같은 데이터로 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberRepositoryBenchmark {
+
+    private static final int TEAMS = 10;
+    private static final int SAVE_ROWS = 100;
+
+    @Param({"1000"})
+    int members;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnly;
+    TransactionTemplate readWrite;
+    List<Team> teams = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        for (int i = 0; i < TEAMS; i++) {
+            teams.add(teamRepository.save(new Team("team" + i)));
+        }
+        List<Member> seed = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            seed.add(Member.builder().username("member" + i).age(i % 100).team(teams.get(i % TEAMS)).build());
+        }
+        memberRepository.saveAllBatched(seed, 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 읽기 전용이면 스냅샷을 만들지 않고 커밋 시 dirty checking/flush 도 하지 않는다. -prof gc 로 할당량도 비교한다.
+    @Benchmark
+    public Object findAllReadOnly() {
+        return readOnly.execute(status -> memberRepository.findAll());
+    }
+
+    @Benchmark
+    public Object findAllReadWrite() {
+        return readWrite.execute(status -> memberRepository.findAll());
+    }
+
+    @Benchmark
+    public Object findAllFetchPlan(FetchPlanState state) {
+        return readOnly.execute(status -> memberRepository.findAll(state.fetchPlan));
+    }
+
+    @Benchmark
+    public Object findMemberFetchJoin() {
+        return readOnly.execute(status -> memberRepository.findMemberFetchJoin());
+    }
+
+    @Benchmark
+    public Object findMemberDtos() {
+        return readOnly.execute(status -> memberRepository.findMemberDtos());
+    }
+
+    @Benchmark
+    public Object findByNativProjection() {
+        return readOnly.execute(status -> memberRepository.findByNativProjection(PageRequest.of(0, 20)).getContent());
+    }
+
+    @Benchmark
+    public Object findMemberDtoPageNative() {
+        return readOnly.execute(status -> memberRepository.findMemberDtoPageNative(PageRequest.of(0, 20)).getContent());
+    }
+
+    @Benchmark
+    public Object findProjectionsByUsername() {
+        return readOnly.execute(status -> memberRepository.findProjectionsByUsername("member1").get(0).getUsernameAndAge());
+    }
+
+    @Benchmark
+    public Object findDtoByUsername() {
+        return readOnly.execute(status -> memberRepository.findDtoByUsername("member1").get(0).getUsernameAndAge());
+    }
+
+    @Benchmark
+    public Object specification() {
+        return readOnly.execute(status ->
+                memberRepository.findAll(MemberSpec.username("member1").and(MemberSpec.teamName("team1"))));
+    }
+
+    @Benchmark
+    public Object search() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        condition.setTeamName("team1");
+        return readOnly.execute(status -> memberRepository.search(condition));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_ROWS)
+    public Object saveLoop() {
+        return readWrite.execute(status -> {
+            for (Member member : newMembers()) {
+                memberRepository.save(member);
+            }
+            memberRepository.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_ROWS)
+    public Object saveAllBatched() {
+        return readWrite.execute(status -> {
+            int saved = memberRepository.saveAllBatched(newMembers(), 50);
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+
+    @Benchmark
+    public Object bulkAgePlus() {
+        return readWrite.execute(status -> {
+            int updated = memberRepository.bulkAgePlus(50);
+            status.setRollbackOnly();
+            return updated;
+        });
+    }
+
+    private List<Member> newMembers() {
+        List<Member> newMembers = new ArrayList<>(SAVE_ROWS);
+        for (int i = 0; i < SAVE_ROWS; i++) {
+            newMembers.add(Member.builder().username("new" + i).age(i).team(teams.get(i % TEAMS)).build());
+        }
+        return newMembers;
+    }
+
+    @State(Scope.Benchmark)
+    public static class FetchPlanState {
+        @Param({"NONE", "TEAM", "TEAM_MEMBERS"})
+        MemberFetchPlan fetchPlan;
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.datajpa.config.MemberPageHttpMessageConverter;
+import study.datajpa.dto.MemberDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /members 응답 직렬화 비용. 기본 JSON(PageImpl 그대로)과 application/vnd.datajpa.page+json 비교.
+ * 응답 크기는 setUp 에서 출력하고, 할당량은 -prof gc 로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"5", "100"})
+    int size;
+
+    ObjectMapper objectMapper;
+    MemberPageHttpMessageConverter compactConverter;
+    Page<MemberDto> page;
+    ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); // 스프링 MVC 와 같은 설정
+        compactConverter = new MemberPageHttpMessageConverter(objectMapper.getFactory());
+
+        List<MemberDto> content = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            content.add(new MemberDto((long) i, "member" + i, "team" + i % 10));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, size), 10_000);
+
+        System.out.println("bytes: json = " + jackson().length + ", compact = " + compact().length);
+    }
+
+    @Benchmark
+    public byte[] jackson() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, page);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] compact() throws IOException {
+        out.reset();
+        compactConverter.write(page, out);
+        return out.toByteArray();
+    }
+}
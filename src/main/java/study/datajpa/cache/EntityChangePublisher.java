@@ -0,0 +1,46 @@
+package study.datajpa.cache;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 엔티티 리스너. INSERT/UPDATE/DELETE 가 실행될 때마다 {@link EntityChangedEvent} 를 발행한다.
+ * 하이버네이트가 스프링 빈 컨테이너로 생성하므로 생성자 주입을 받을 수 있다.
+ * EntityManagerFactory 를 만드는 도중에 생성되므로 EntityManagerFactory 는 나중에 꺼내 쓴다.
+ */
+public class EntityChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<EntityManagerFactory> emf;
+
+    public EntityChangePublisher(ApplicationEventPublisher eventPublisher, ObjectProvider<EntityManagerFactory> emf) {
+        this.eventPublisher = eventPublisher;
+        this.emf = emf;
+    }
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        publish(entity, EntityChangedEvent.Type.INSERT);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        publish(entity, EntityChangedEvent.Type.UPDATE);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        publish(entity, EntityChangedEvent.Type.DELETE);
+    }
+
+    private void publish(Object entity, EntityChangedEvent.Type type) {
+        Object id = emf.getObject().getPersistenceUnitUtil().getIdentifier(entity);
+        eventPublisher.publishEvent(new EntityChangedEvent(Hibernate.getClass(entity), type, id));
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.cache;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 엔티티 변경 알림. 벌크 연산처럼 어떤 엔티티가 바뀌었는지 모르면 id 가 null 이다.
+ */
+@Getter
+@ToString
+public class EntityChangedEvent {
+
+    public enum Type {INSERT, UPDATE, DELETE, BULK}
+
+    private final Class<?> entityClass;
+    private final Type type;
+    private final Object id;
+
+    public EntityChangedEvent(Class<?> entityClass, Type type, Object id) {
+        this.entityClass = entityClass;
+        this.type = type;
+        this.id = id;
+    }
+
+    public static EntityChangedEvent bulk(Class<?> entityClass) {
+        return new EntityChangedEvent(entityClass, Type.BULK, null);
+    }
+}
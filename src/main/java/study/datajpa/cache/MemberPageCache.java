@@ -0,0 +1,120 @@
+package study.datajpa.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * /members 응답 캐시. Pageable(page, size, sort)별로 조회 결과와 ETag 를 보관한다.
+ * 크기는 max-pages 로 제한되고 Caffeine(W-TinyLFU)이 자주 쓰이는 페이지를 남긴다.
+ * <p>
+ * 회원/팀이 변경되어 트랜잭션이 커밋되면 무효화한다.
+ * 정렬이 없거나 id 정렬인 페이지는 기존 회원 수정 시 해당 회원이 포함된 페이지만 지운다.
+ * 그 외(추가, 삭제, 벌크 연산, 다른 정렬 기준, 팀 변경)는 페이지 구성이 바뀔 수 있으므로 전부 지운다.
+ */
+@Component
+public class MemberPageCache {
+
+    private final Cache<Pageable, Entry> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong(); // getIfPresent + put 을 쓰므로 Caffeine 의 loadCount 에는 잡히지 않는다.
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36); // 재시작 전 ETag 와 겹치지 않게
+
+    public MemberPageCache(@Value("${datajpa.members.cache.max-pages:1000}") long maxPages,
+                           @Value("${datajpa.members.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds)) // 이벤트를 놓쳐도 ttl 이 지나면 다시 조회한다.
+                .recordStats()
+                .build();
+    }
+
+    public Entry get(Pageable pageable, Function<Pageable, Page<MemberDto>> loader) {
+        Entry entry = cache.getIfPresent(pageable);
+        if (entry != null) {
+            return entry;
+        }
+
+        long generation = invalidations.get();
+        Page<MemberDto> page = loader.apply(pageable);
+        entry = new Entry(page, etagPrefix + "-" + versions.incrementAndGet(), isIdOrdered(pageable.getSort()));
+        // 조회하는 동안 무효화가 있었으면 이전 데이터일 수 있으므로 캐시에 넣지 않는다.
+        if (invalidations.get() == generation) {
+            cache.put(pageable, entry);
+            puts.incrementAndGet();
+            // 확인과 put 사이에 무효화가 끼어들 수 있으므로 다시 확인하고, 그 사이 바뀌었으면 방금 넣은 것만 지운다.
+            if (invalidations.get() != generation) {
+                cache.asMap().remove(pageable, entry);
+            }
+        }
+        return entry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntityClass() == Member.class) {
+            invalidations.incrementAndGet();
+            if (event.getType() == EntityChangedEvent.Type.UPDATE && event.getId() != null) {
+                cache.asMap().values().removeIf(entry -> !entry.isIdOrdered() || entry.getIds().contains(event.getId()));
+            } else {
+                cache.invalidateAll();
+            }
+        } else if (event.getEntityClass() == Team.class && event.getType() != EntityChangedEvent.Type.INSERT) {
+            // 새 팀을 참조하는 회원은 아직 없다. 팀 이름이 바뀌면 여러 페이지의 teamName 이 바뀐다.
+            invalidations.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 캐시에 넣은 횟수. 조회 중 무효화되어 넣지 않은 경우는 빠진다.
+     */
+    public long puts() {
+        return puts.get();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static boolean isIdOrdered(Sort sort) {
+        return sort.stream().allMatch(order -> order.getProperty().equals("id"));
+    }
+
+    @Getter
+    public static class Entry {
+        private final Page<MemberDto> page;
+        private final String etag;
+        private final boolean idOrdered;
+        private final Set<Long> ids;
+
+        private Entry(Page<MemberDto> page, String etag, boolean idOrdered) {
+            this.page = page;
+            this.etag = etag;
+            this.idOrdered = idOrdered;
+            this.ids = page.getContent().stream().map(MemberDto::getId).collect(Collectors.toSet());
+        }
+    }
+}
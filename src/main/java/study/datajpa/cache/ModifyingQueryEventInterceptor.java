@@ -0,0 +1,37 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.lang.reflect.Method;
+
+/**
+ * 엔티티 리스너를 거치지 않는 벌크 연산(@Modifying 쿼리, deleteInBatch 등)이 끝나면 {@link EntityChangedEvent} 를 발행한다.
+ */
+@RequiredArgsConstructor
+public class ModifyingQueryEventInterceptor implements MethodInterceptor {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Class<?> domainType;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (isBulk(invocation.getMethod())) {
+            eventPublisher.publishEvent(EntityChangedEvent.bulk(domainType));
+        }
+        return result;
+    }
+
+    private static boolean isBulk(Method method) {
+        if (AnnotatedElementUtils.hasAnnotation(method, Modifying.class)) {
+            return true;
+        }
+        String name = method.getName();
+        return name.startsWith("delete") && name.endsWith("InBatch");
+    }
+}
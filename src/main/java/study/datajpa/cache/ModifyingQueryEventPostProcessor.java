@@ -0,0 +1,48 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import study.datajpa.metrics.RepositoryMetricsPostProcessor;
+
+/**
+ * 스프링 데이터 리포지토리 프록시 맨 앞에 {@link ModifyingQueryEventInterceptor} 를 추가한다.
+ * 트랜잭션 밖에서 이벤트를 발행하므로 메소드 자체 트랜잭션은 이미 커밋된 뒤다.
+ * {@link RepositoryMetricsPostProcessor} 보다 먼저 실행되므로 메트릭 인터셉터 바로 안쪽에 놓인다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ModifyingQueryEventPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised) {
+            Class<?> domainType = domainType((Advised) bean);
+            if (domainType != null) {
+                ((Advised) bean).addAdvice(0, new ModifyingQueryEventInterceptor(eventPublisher, domainType));
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return RepositoryMetricsPostProcessor.ORDER - 1;
+    }
+
+    private static Class<?> domainType(Advised advised) {
+        for (Class<?> repositoryInterface : advised.getProxiedInterfaces()) {
+            if (repositoryInterface != Repository.class && Repository.class.isAssignableFrom(repositoryInterface)) {
+                return ResolvableType.forClass(repositoryInterface).as(Repository.class).resolveGeneric(0);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * datajpa.async.enabled=true 일 때 /async/members 요청의 리포지토리 호출을 톰캣 스레드 대신 별도 실행기에서 처리한다.
+ * virtual-threads=true 이고 JDK 21 이상에서 실행하면 가상 스레드를 사용하고, 아니면 고정 크기 스레드 풀을 사용한다.
+ * <p>
+ * 동기 핸들러와 처리량 비교:
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="compare=/members,/async/members maxConcurrency=1000 datajpa.async.enabled=true"
+ * </pre>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.async", name = "enabled", havingValue = "true")
+public class AsyncExecutionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedAsyncTaskExecutor memberQueryExecutor(@Value("${datajpa.async.virtual-threads:false}") boolean virtualThreads,
+                                                        @Value("${datajpa.async.max-threads:50}") int maxThreads,
+                                                        @Value("${datajpa.async.max-in-flight:500}") int maxInFlight) {
+        ExecutorService executor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(maxThreads, new CustomizableThreadFactory("member-query-"));
+        }
+        return new BoundedAsyncTaskExecutor(executor, maxInFlight);
+    }
+
+    /**
+     * 컴파일은 JDK 11 기준이므로 리플렉션으로 호출한다.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("가상 스레드를 사용할 수 없는 JDK({}) 입니다. 스레드 풀로 대신 실행합니다.", System.getProperty("java.version"));
+            return null;
+        }
+    }
+}
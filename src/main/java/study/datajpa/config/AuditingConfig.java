@@ -0,0 +1,37 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * datajpa.auditing.auditor 로 @CreatedBy, @LastModifiedBy 에 들어갈 값을 정한다.
+ * <ul>
+ *     <li>per-transaction: 트랜잭션마다 한 번만 구한다. (기본값)</li>
+ *     <li>uuid-per-entity: 엔티티를 저장/수정할 때마다 새 UUID, 대량 저장 시 SecureRandom 이 병목이 된다.</li>
+ *     <li>none: 사용자 컬럼을 비워둔다. 날짜 컬럼은 그대로 채워진다.</li>
+ * </ul>
+ * 변경 감지로 바뀐 필드가 없는 엔티티는 UPDATE 도 @PreUpdate 도 일어나지 않으므로 감사 컬럼만 다시 쓰는 일은 없다.
+ */
+@Configuration
+public class AuditingConfig {
+
+    @Bean
+    public AuditorAware<String> auditorProvider(@Value("${datajpa.auditing.auditor:per-transaction}") String auditor) {
+        switch (auditor) {
+            case "per-transaction":
+                // 실제 서비스라면 여기서 로그인 사용자를 조회한다.
+                return new TransactionScopedAuditorAware(() -> UUID.randomUUID().toString());
+            case "uuid-per-entity":
+                return () -> Optional.of(UUID.randomUUID().toString());
+            case "none":
+                return Optional::empty;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 datajpa.auditing.auditor 입니다: " + auditor);
+        }
+    }
+}
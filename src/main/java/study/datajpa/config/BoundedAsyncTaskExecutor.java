@@ -0,0 +1,100 @@
+package study.datajpa.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시에 처리 중이거나 대기 중인 작업 수를 maxInFlight 로 제한하는 실행기.
+ * 한도를 넘으면 큐에 쌓지 않고 바로 {@link TaskRejectedException} 을 던져서 호출한 쪽이 503 으로 응답하게 한다.
+ * startTimeout 을 받는 {@link #execute(Runnable, long)} 만 그 시간 동안 자리가 나기를 기다린다.
+ */
+public class BoundedAsyncTaskExecutor implements AsyncTaskExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public BoundedAsyncTaskExecutor(ExecutorService executor, int maxInFlight) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(task);
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        submit(() -> {
+            task.run();
+            return null;
+        }, startTimeout);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return submit(task, TIMEOUT_IMMEDIATE);
+    }
+
+    private <T> Future<T> submit(Callable<T> task, long startTimeout) {
+        acquire(startTimeout);
+        FutureTask<T> future = new FutureTask<T>(task) {
+            // done() 는 cancel 즉시 호출되므로, 실행 중인 작업이 실제로 끝날 때까지 기다렸다가 반환한다.
+            @Override
+            public void run() {
+                try {
+                    super.run();
+                } finally {
+                    permits.release();
+                }
+            }
+        };
+        try {
+            executor.execute(future);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw new TaskRejectedException("작업을 실행할 수 없습니다.", e);
+        }
+        return future;
+    }
+
+    private void acquire(long startTimeout) {
+        boolean acquired;
+        if (startTimeout == TIMEOUT_IMMEDIATE) {
+            acquired = permits.tryAcquire();
+        } else {
+            try {
+                acquired = permits.tryAcquire(startTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskRejectedException("작업 시작을 기다리는 중 인터럽트되었습니다.", e);
+            }
+        }
+        if (!acquired) {
+            throw new TaskRejectedException("처리 가능한 요청 수를 초과했습니다.");
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,121 @@
+package study.datajpa.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import study.datajpa.dto.MemberDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Page&lt;MemberDto&gt; 를 pageable, sort 같은 메타 정보 없이 작게 내려준다.
+ * 리플렉션 없이 JsonGenerator 로 필드를 직접 쓴다.
+ * <pre>
+ * {"content":[{"id":1,"username":"member1","teamName":"teamA"}],"page":0,"size":5,"total":100,"hasNext":true}
+ * </pre>
+ * Accept 에 {@link #MEDIA_TYPE_VALUE} 를 명시한 요청에만 쓰인다.
+ * 핸들러 반환 타입의 제네릭으로 요소 타입을 확인하므로, 쓰는 도중에 다른 타입을 만나 실패하지 않는다.
+ */
+public class MemberPageHttpMessageConverter extends AbstractGenericHttpMessageConverter<Page<?>> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.datajpa.page+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final JsonFactory jsonFactory;
+
+    public MemberPageHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MEDIA_TYPE);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Page.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * 요소 타입을 알 수 없으므로 다른 컨버터에 양보한다.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Page&lt;? extends MemberDto&gt; 이고 Accept 가 {@link #MEDIA_TYPE_VALUE} 일 때만 쓴다.
+     * Accept 가 없거나 와일드카드면 기본 JSON 컨버터에 양보한다.
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (mediaType == null || mediaType.isWildcardType() || mediaType.isWildcardSubtype()
+                || !supports(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        Class<?> element = ResolvableType.forType(type != null ? type : clazz).as(Page.class).resolveGeneric(0);
+        return element != null && MemberDto.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public Page<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("읽기는 지원하지 않습니다.", inputMessage);
+    }
+
+    @Override
+    protected Page<?> readInternal(Class<? extends Page<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("읽기는 지원하지 않습니다.", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Page<?> page, Type type, HttpOutputMessage outputMessage) throws IOException {
+        write((Page<? extends MemberDto>) page, outputMessage.getBody()); // canWrite 에서 요소 타입을 확인했다.
+    }
+
+    public void write(Page<? extends MemberDto> page, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("content");
+            for (MemberDto member : page.getContent()) {
+                writeMember(generator, member);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("page", page.getNumber());
+            generator.writeNumberField("size", page.getSize());
+            generator.writeNumberField("total", page.getTotalElements());
+            generator.writeBooleanField("hasNext", page.hasNext());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeMember(JsonGenerator generator, MemberDto member) throws IOException {
+        generator.writeStartObject();
+        if (member.getId() != null) {
+            generator.writeNumberField("id", member.getId());
+        } else {
+            generator.writeNullField("id");
+        }
+        generator.writeStringField("username", member.getUsername());
+        generator.writeStringField("teamName", member.getTeamName());
+        generator.writeEndObject();
+    }
+}
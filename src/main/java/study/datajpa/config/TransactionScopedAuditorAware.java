@@ -0,0 +1,42 @@
+package study.datajpa.config;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 트랜잭션마다 한 번만 auditor 를 구해서 그 트랜잭션에서 저장/수정하는 모든 엔티티에 같은 값을 쓴다.
+ * 트랜잭션 밖에서는 호출할 때마다 resolver 를 부른다.
+ */
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+
+    private final Supplier<String> resolver;
+
+    public TransactionScopedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<String> getCurrentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.ofNullable(resolver.get());
+        }
+
+        Optional<String> auditor = (Optional<String>) TransactionSynchronizationManager.getResource(this);
+        if (auditor == null) {
+            auditor = Optional.ofNullable(resolver.get());
+            TransactionSynchronizationManager.bindResource(this, auditor);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditorAware.this);
+                }
+            });
+        }
+        return auditor;
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.config.BoundedAsyncTaskExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * MemberController 의 조회 API 를 비동기로 처리한다. 톰캣 스레드는 JDBC 를 기다리지 않고 바로 반환된다.
+ * 실행기가 가득 차면 큐에 쌓지 않고 503 으로 응답하고, 요청마다 타임아웃이 걸린다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "datajpa.async", name = "enabled", havingValue = "true")
+public class MemberAsyncController {
+
+    private final MemberRepository memberRepository;
+    private final BoundedAsyncTaskExecutor memberQueryExecutor;
+
+    @Value("${datajpa.async.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @GetMapping("/async/members/{id}")
+    public WebAsyncTask<String> findMember(@PathVariable("id") Long id) {
+        return async(() -> memberRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+                .getUsername());
+    }
+
+    @GetMapping("/async/members")
+    public WebAsyncTask<Page<MemberDto>> findMembers(@PageableDefault(size = 5) Pageable pageable) {
+        return async(() -> memberRepository.findMemberDtoPage(pageable));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> rejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    private <T> WebAsyncTask<T> async(Callable<T> callable) {
+        WebAsyncTask<T> task = new WebAsyncTask<>(timeoutMillis, memberQueryExecutor, callable);
+        task.onTimeout(() -> {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청 처리 시간을 초과했습니다.");
+        });
+        return task;
+    }
+}
@@ -2,37 +2,59 @@ package study.datajpa.controller;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.cache.MemberPageCache;
+import study.datajpa.config.MemberPageHttpMessageConverter;
+import study.datajpa.dto.MemberCursor;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.dto.MemberSliceDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberFetchPlan;
 import study.datajpa.repository.MemberRepository;
 import study.datajpa.repository.TeamRepository;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_KEYSET_SIZE = 1000;
+
     private final MemberRepository memberRepository;
     private final TeamRepository teamRepository;
+    private final MemberPageCache memberPageCache;
+
+    // true 이면 /members 를 엔티티 대신 DTO 프로젝션으로 바로 조회한다.
+    @Value("${datajpa.members.dto-projection:true}")
+    private boolean dtoProjection;
 
     @PostConstruct
     void init() {
         Team teamA = new Team("TeamA");
         teamRepository.save(teamA);
 
+        List<Member> testers = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            Member testerA = Member.builder().team(teamA).age(10 + i).username("Tester" + i).build();
-            memberRepository.save(testerA);
+            testers.add(Member.builder().team(teamA).age(10 + i).username("Tester" + i).build());
         }
-
+        memberRepository.saveAllBatched(testers, 100);
 
     }
 
@@ -48,12 +70,90 @@ public class MemberController {
     }
 
 
+    /**
+     * 같은 페이지는 MemberPageCache 에서 응답한다. If-None-Match 가 현재 ETag 와 같으면 본문 없이 304 로 응답한다.
+     * 같은 URL 에 표현이 두 가지(기본 JSON, compact)라 Vary: Accept 를 붙인다.
+     */
     @GetMapping("/members")
-    public Page<MemberDto> findMembers(@PageableDefault(size = 5) Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
+    public ResponseEntity<Page<MemberDto>> findMembers(@PageableDefault(size = 5) Pageable pageable) {
+        MemberPageCache.Entry entry = memberPageCache.get(pageable, this::loadMembers);
+        return cachedPage(entry.getPage(), entry.getEtag());
+    }
+
+    /**
+     * Accept: application/vnd.datajpa.page+json 이면 content 와 page, size, total, hasNext 만 내려준다.
+     */
+    @GetMapping(value = "/members", produces = MemberPageHttpMessageConverter.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Page<MemberDto>> findMembersCompact(@PageableDefault(size = 5) Pageable pageable) {
+        MemberPageCache.Entry entry = memberPageCache.get(pageable, this::loadMembers);
+        return cachedPage(entry.getPage(), entry.getEtag() + "-compact"); // 표현마다 ETag 가 달라야 한다.
+    }
+
+    private static ResponseEntity<Page<MemberDto>> cachedPage(Page<MemberDto> page, String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT) // 공유 캐시가 Accept 별로 따로 보관해야 한다.
+                .body(page);
+    }
+
+    private Page<MemberDto> loadMembers(Pageable pageable) {
+        if (dtoProjection) {
+            return memberRepository.findMemberDtoPage(pageable);
+        }
+        Page<Member> page = memberRepository.findAll(MemberFetchPlan.TEAM, pageable); // MemberDto 가 팀 이름을 쓴다.
         Page<MemberDto> map = page.map(MemberDto::new);
         return map;
     }
 
+    /**
+     * 조건 검색. 예) /members/search?usernamePrefix=Tester&ageGoe=20&ageLoe=30&teamNames=TeamA,TeamB&limit=50
+     * 팀은 batch fetch 와 2차 캐시로 읽으므로 결과 건수만큼 쿼리가 늘지 않는다.
+     */
+    @GetMapping("/members/search")
+    public List<MemberDto> search(MemberSearchCondition condition) {
+        return memberRepository.search(condition).stream()
+                .map(MemberDto::new)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * offset/count 없이 cursor 로 다음 페이지를 조회한다. 깊은 페이지도 첫 페이지와 같은 비용이 든다.
+     * 첫 페이지는 cursor 없이 sort(id, username)를 지정하고, 이후에는 응답의 nextCursor 만 넘기면 된다.
+     */
+    @GetMapping("/members/keyset")
+    public MemberSliceDto findMembersByKeyset(@RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                              @RequestParam(value = "size", defaultValue = "5") int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_KEYSET_SIZE);
+
+        MemberCursor after = null;
+        if (cursor != null) {
+            try {
+                after = MemberCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+            }
+        }
+        boolean byUsername = after != null ? after.isByUsername() : "username".equals(sort);
+        Long lastId = after != null ? after.getId() : null;
+        String lastUsername = after != null ? after.getUsername() : null;
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회한다.
+        List<Member> members = byUsername
+                ? memberRepository.findMembersAfterUsername(lastUsername, lastId, limit + 1)
+                : memberRepository.findMembersAfterId(lastId, limit + 1);
+
+        boolean hasNext = members.size() > limit;
+        if (hasNext) {
+            members = members.subList(0, limit);
+        }
+        String nextCursor = hasNext ? MemberCursor.after(members.get(limit - 1), byUsername).encode() : null;
+
+        List<MemberDto> content = members.stream()
+                .map(MemberDto::new)
+                .collect(Collectors.toList());
+        return new MemberSliceDto(content, nextCursor, hasNext);
+    }
+
 
 }
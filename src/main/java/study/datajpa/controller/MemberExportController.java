@@ -0,0 +1,92 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 회원 전체 내보내기. 응답을 chunked 로 흘려보내서 건수가 많아도 서버 메모리에 쌓아두지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${datajpa.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${datajpa.export.clear-interval:500}")
+    private int clearInterval;
+
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok().contentType(CSV).body(out -> {
+                out.write("id,username,teamName\n".getBytes(StandardCharsets.UTF_8));
+                export(out, dto -> (dto.getId() + "," + csv(dto.getUsername()) + "," + csv(dto.getTeamName()) + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            });
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok().contentType(NDJSON).body(out -> export(out, this::ndjson));
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 format 입니다: " + format);
+    }
+
+    private void export(OutputStream out, RowWriter writer) throws IOException {
+        try {
+            memberRepository.exportMembers(fetchSize, clearInterval, member -> {
+                try {
+                    out.write(writer.write(new MemberDto(member)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private byte[] ndjson(MemberDto dto) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(dto);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        byte[] write(MemberDto dto) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package study.datajpa.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import study.datajpa.cache.MemberPageCache;
+import study.datajpa.metrics.LatencyHistogram;
+import study.datajpa.metrics.MethodMetrics;
+import study.datajpa.metrics.PoolMetrics;
+import study.datajpa.metrics.RepositoryMetrics;
+import study.datajpa.repository.support.SearchPlanCache;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 운영 중 확인용 통계. hibernate.generate_statistics 가 켜져 있어야 값이 쌓인다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final EntityManagerFactory emf;
+    private final RepositoryMetrics repositoryMetrics;
+    private final PoolMetrics poolMetrics;
+    private final SearchPlanCache searchPlanCache;
+    private final MemberPageCache memberPageCache;
+
+    @GetMapping("/stats/cache")
+    public Map<String, Object> cacheStats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            regions.put(regionName, hitMiss(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("secondLevel", hitMiss(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("query", hitMiss(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        result.put("regions", regions);
+
+        CacheStats members = memberPageCache.stats();
+        Map<String, Object> memberPages = hitMiss(members.hitCount(), members.missCount(), memberPageCache.puts());
+        memberPages.put("size", memberPageCache.size());
+        memberPages.put("evictions", members.evictionCount());
+        result.put("memberPages", memberPages);
+        return result;
+    }
+
+    private static Map<String, Object> hitMiss(long hit, long miss, long put) {
+        Map<String, Object> result = hitMiss(hit, miss);
+        result.put("put", put);
+        return result;
+    }
+
+    private static Map<String, Object> hitMiss(long hit, long miss) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hit", hit);
+        result.put("miss", miss);
+        result.put("hitRatio", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+        return result;
+    }
+
+    /**
+     * 리포지토리 메소드별 지표. 누적 소요 시간이 큰 메소드부터 보여준다.
+     */
+    @GetMapping("/stats/queries")
+    public List<Map<String, Object>> queryStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (MethodMetrics metrics : repositoryMetrics.snapshot()) {
+            LatencyHistogram latency = metrics.getLatency();
+            Map<String, Object> method = new LinkedHashMap<>();
+            method.put("method", metrics.getName());
+            method.put("calls", latency.getCount());
+            method.put("errors", metrics.getErrors().sum());
+            method.put("totalMillis", latency.getTotalNanos() / 1_000_000);
+            method.put("meanMillis", latency.getMeanMillis());
+            method.put("p50Millis", latency.getPercentileMillis(50));
+            method.put("p95Millis", latency.getPercentileMillis(95));
+            method.put("p99Millis", latency.getPercentileMillis(99));
+            method.put("rows", metrics.getRows().sum());
+            method.put("entityLoads", metrics.getEntityLoads().sum());
+            method.put("secondLevelCacheHits", metrics.getSecondLevelCacheHits().sum());
+            method.put("secondLevelCacheMisses", metrics.getSecondLevelCacheMisses().sum());
+            method.put("queryCacheHits", metrics.getQueryCacheHits().sum());
+            result.add(method);
+        }
+        return result;
+    }
+
+    @DeleteMapping("/stats/queries")
+    public void resetQueryStats() {
+        repositoryMetrics.reset();
+    }
+
+    /**
+     * 커넥션 풀 상태. pending 이 계속 0 보다 크거나 acquire 시간이 길면 쿼리보다 풀 대기가 병목이다.
+     */
+    @GetMapping("/stats/pool")
+    public List<Map<String, Object>> poolStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (PoolMetrics.Pool pool : poolMetrics.getPools()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("pool", pool.getName());
+            stats.put("active", pool.getStats().getActiveConnections());
+            stats.put("idle", pool.getStats().getIdleConnections());
+            stats.put("pending", pool.getStats().getPendingThreads());
+            stats.put("total", pool.getStats().getTotalConnections());
+            stats.put("max", pool.getStats().getMaxConnections());
+            stats.put("timeouts", pool.getTimeouts().sum());
+            stats.put("acquire", percentiles(pool.getAcquire()));
+            stats.put("usage", percentiles(pool.getUsage()));
+            result.add(stats);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> percentiles(LatencyHistogram histogram) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getCount());
+        result.put("meanMillis", histogram.getMeanMillis());
+        result.put("p50Millis", histogram.getPercentileMillis(50));
+        result.put("p95Millis", histogram.getPercentileMillis(95));
+        result.put("p99Millis", histogram.getPercentileMillis(99));
+        return result;
+    }
+
+    /**
+     * 검색 쿼리 재사용 현황. plan 은 조건 조합별 JPQL 캐시, hibernatePlan 은 하이버네이트 query plan cache 다.
+     */
+    @GetMapping("/stats/search")
+    public Map<String, Object> searchStats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("shapes", searchPlanCache.size());
+        result.put("plan", hitMiss(searchPlanCache.getHits(), searchPlanCache.getMisses(), searchPlanCache.getPuts()));
+        // 하이버네이트는 query plan cache 에 넣은 횟수를 따로 세지 않는다.
+        result.put("hibernatePlan", hitMiss(statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount()));
+        return result;
+    }
+}
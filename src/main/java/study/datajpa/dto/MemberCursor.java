@@ -0,0 +1,59 @@
+package study.datajpa.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * keyset 페이징의 연속 토큰. 클라이언트에게는 불투명한 문자열로만 노출된다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberCursor {
+
+    private static final String BY_ID = "i";
+    private static final String BY_USERNAME = "u";
+    private static final String DELIMITER = "|";
+
+    private final boolean byUsername;
+    private final Long id;
+    private final String username;
+
+    public static MemberCursor after(Member member, boolean byUsername) {
+        return new MemberCursor(byUsername, member.getId(), byUsername ? member.getUsername() : null);
+    }
+
+    public String encode() {
+        String raw = byUsername
+                ? BY_USERNAME + DELIMITER + id + DELIMITER + username
+                : BY_ID + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + token, e);
+        }
+
+        // username 에 구분자가 들어있을 수 있으므로 최대 3개로만 나눈다.
+        String[] parts = raw.split("\\" + DELIMITER, 3);
+        try {
+            if (BY_ID.equals(parts[0]) && parts.length == 2) {
+                return new MemberCursor(false, Long.valueOf(parts[1]), null);
+            }
+            if (BY_USERNAME.equals(parts[0]) && parts.length == 3) {
+                return new MemberCursor(true, Long.valueOf(parts[1]), parts[2]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + token, e);
+        }
+        throw new IllegalArgumentException("잘못된 cursor 입니다: " + token);
+    }
+}
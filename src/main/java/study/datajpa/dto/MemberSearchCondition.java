@@ -0,0 +1,40 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 회원 검색 조건. 값이 없는(null, 빈 문자열, 빈 목록) 조건은 쿼리에서 빠진다.
+ * 범위 조건은 양 끝을 포함한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class MemberSearchCondition {
+
+    private String username;
+    private String usernamePrefix;
+    private String teamName;
+    private List<String> teamNames;
+    private Integer ageGoe;
+    private Integer ageLoe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime modifiedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime modifiedTo;
+
+    /**
+     * 최대 조회 건수, 없으면 기본값(100)을 쓰고 1000 건을 넘을 수 없다.
+     */
+    private Integer limit;
+}
@@ -0,0 +1,17 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * keyset 페이징 응답. 전체 건수 대신 다음 페이지 조회용 cursor 를 내려준다.
+ */
+@Getter
+@AllArgsConstructor
+public class MemberSliceDto {
+    private final List<MemberDto> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+}
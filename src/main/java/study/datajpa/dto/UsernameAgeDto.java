@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 클래스 기반 프로젝션. 조회 결과가 생성자로 바로 만들어지므로 프록시를 거치지 않는다.
+ */
+@Getter
+@ToString
+public class UsernameAgeDto {
+    private final String username;
+    private final int age;
+
+    public UsernameAgeDto(String username, int age) {
+        this.username = username;
+        this.age = age;
+    }
+
+    public String getUsernameAndAge() {
+        return username + " " + age;
+    }
+}
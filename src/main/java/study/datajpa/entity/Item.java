@@ -36,6 +36,15 @@ public class Item implements Persistable<String> {
         return createdDate == null;
     }
 
+    /**
+     * 엔티티 리스너를 거치지 않고(native insert) 저장한 경우 생성일을 채운다. 이미 값이 있으면 그대로 둔다.
+     */
+    public void markCreated(LocalDateTime createdDate) {
+        if (this.createdDate == null) {
+            this.createdDate = createdDate;
+        }
+    }
+
 //    @Override
 //    public boolean isNew() {
 //        return createdDate == null;
@@ -1,27 +1,54 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.cache.EntityChangePublisher;
+import study.datajpa.dto.MemberDto;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(EntityChangePublisher.class) // /members 응답 캐시 무효화
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
+@Table(indexes = { // 리포지토리 쿼리와 회원 검색 조건용
+        @Index(name = "idx_member_username_age", columnList = "username, age"), // username 단독 조건도 이 인덱스를 쓴다.
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team", columnList = "team_id"),
+        @Index(name = "idx_member_created_date", columnList = "creadted_date"),
+        @Index(name = "idx_member_last_modified_date", columnList = "last_modified_date")
+})
 @NamedQuery(
         name = "Member.finByUsername",
         query = "select m from Member m where m.username = :username"
 )
+@SqlResultSetMapping( // 네이티브 쿼리 결과를 프록시 없이 MemberDto 생성자로 바로 받는다.
+        name = "MemberDtoMapping",
+        classes = @ConstructorResult(targetClass = MemberDto.class, columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "username", type = String.class),
+                @ColumnResult(name = "team_name", type = String.class)
+        })
+)
 public class Member extends BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50) // pooled optimizer, insert 배치가 가능하다.
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    @Version // 동시에 수정하면 나중에 커밋하는 쪽이 OptimisticLockException 으로 실패한다.
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -0,0 +1,67 @@
+package study.datajpa.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * 하이버네이트 전역 통계에 더해 현재 스레드의 누적값도 센다.
+ * 리포지토리 메소드 호출 전후 값을 비교해서 메소드별 엔티티 로딩 수, 캐시 적중 수를 구한다.
+ * 기본 통계 구현을 {@link StatisticsImplementor} 인터페이스 뒤에서 감싸기만 하므로 내부 클래스의 상속 구조에 의존하지 않는다.
+ * hibernate.stats.factory 에 {@link HibernateThreadStatisticsFactory} 를 지정해야 사용된다.
+ */
+public class HibernateThreadStatistics implements MethodInterceptor {
+
+    public static final int ENTITY_LOADS = 0;
+    public static final int SECOND_LEVEL_CACHE_HITS = 1;
+    public static final int SECOND_LEVEL_CACHE_MISSES = 2;
+    public static final int QUERY_CACHE_HITS = 3;
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[4]);
+
+    private HibernateThreadStatistics() {
+    }
+
+    /**
+     * 모든 호출을 delegate 에 넘기고 집계 대상 콜백만 현재 스레드 카운터에 더한다.
+     */
+    public static StatisticsImplementor wrap(StatisticsImplementor delegate) {
+        ProxyFactory proxyFactory = new ProxyFactory(delegate);
+        proxyFactory.setInterfaces(StatisticsImplementor.class);
+        proxyFactory.addAdvice(new HibernateThreadStatistics());
+        return (StatisticsImplementor) proxyFactory.getProxy(HibernateThreadStatistics.class.getClassLoader());
+    }
+
+    /**
+     * 현재 스레드의 누적 카운터. 복사본이 아니므로 읽기만 해야 한다.
+     */
+    public static long[] currentThread() {
+        return COUNTERS.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int counter = counterOf(invocation.getMethod().getName());
+        if (counter >= 0) {
+            COUNTERS.get()[counter]++;
+        }
+        return result;
+    }
+
+    private static int counterOf(String methodName) {
+        switch (methodName) {
+            case "loadEntity":
+                return ENTITY_LOADS;
+            case "entityCacheHit":
+                return SECOND_LEVEL_CACHE_HITS;
+            case "entityCacheMiss":
+                return SECOND_LEVEL_CACHE_MISSES;
+            case "queryCacheHit":
+                return QUERY_CACHE_HITS;
+            default:
+                return -1;
+        }
+    }
+}
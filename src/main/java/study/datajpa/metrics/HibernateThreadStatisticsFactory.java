@@ -0,0 +1,15 @@
+package study.datajpa.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+public class HibernateThreadStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        // 기본 팩토리가 만드는 것과 같은 구현을 만들고 감싸기만 한다.
+        return HibernateThreadStatistics.wrap(new StatisticsImpl(sessionFactory));
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리포지토리 메소드 하나의 누적 지표.
+ */
+@Getter
+public class MethodMetrics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder entityLoads = new LongAdder();
+    private final LongAdder secondLevelCacheHits = new LongAdder();
+    private final LongAdder secondLevelCacheMisses = new LongAdder();
+    private final LongAdder queryCacheHits = new LongAdder();
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+}
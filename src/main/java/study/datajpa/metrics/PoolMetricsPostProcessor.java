@@ -0,0 +1,24 @@
+package study.datajpa.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 풀이 시작되기 전에 HikariDataSource 빈마다 {@link PoolMetrics} 를 연결한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PoolMetricsPostProcessor implements BeanPostProcessor {
+
+    private final PoolMetrics poolMetrics;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource && ((HikariDataSource) bean).getMetricsTrackerFactory() == null) {
+            ((HikariDataSource) bean).setMetricsTrackerFactory(poolMetrics);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 하이버네이트가 실행하는 SQL 수를 스레드별로 센다.
+ * hibernate.session_factory.statement_inspector 에 지정해야 동작한다.
+ * 테스트에서는 구간 전후 {@link #currentCount()} 를 비교하고,
+ * 운영에서는 {@link QueryGuardInterceptor} 가 요청 단위로 집계한다.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<Counter> COUNTER = ThreadLocal.withInitial(Counter::new);
+
+    @Override
+    public String inspect(String sql) {
+        Counter counter = COUNTER.get();
+        counter.total++;
+        if (counter.request != null) {
+            counter.request.record(counter.repositoryMethod);
+        }
+        return sql;
+    }
+
+    /**
+     * 현재 스레드에서 지금까지 실행된 SQL 수
+     */
+    public static long currentCount() {
+        return COUNTER.get().total;
+    }
+
+    /**
+     * 이후 실행되는 SQL 을 repositoryMethod 가 실행한 것으로 기록한다.
+     *
+     * @return 이전 메소드 이름. {@link #exitRepositoryMethod(String)} 에 다시 넘겨준다.
+     */
+    public static String enterRepositoryMethod(String repositoryMethod) {
+        Counter counter = COUNTER.get();
+        String previous = counter.repositoryMethod;
+        counter.repositoryMethod = repositoryMethod;
+        return previous;
+    }
+
+    public static void exitRepositoryMethod(String previous) {
+        COUNTER.get().repositoryMethod = previous;
+    }
+
+    public static void startRequest() {
+        COUNTER.get().request = new RequestQueryStats();
+    }
+
+    /**
+     * @return 요청 동안 모은 통계. startRequest 없이 호출하면 null
+     */
+    public static RequestQueryStats endRequest() {
+        Counter counter = COUNTER.get();
+        RequestQueryStats request = counter.request;
+        counter.request = null;
+        return request;
+    }
+
+    private static class Counter {
+        private long total;
+        private String repositoryMethod;
+        private RequestQueryStats request;
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 요청 하나가 SQL 을 너무 많이 실행하거나(N+1 의심) 응답 시간 예산을 넘기면 경고 로그를 남긴다.
+ * SQL 을 가장 많이 실행한 리포지토리 메소드를 같이 남긴다.
+ * 비동기 요청(Callable, WebAsyncTask)은 리포지토리 호출이 실행기 스레드에서 일어나므로 Callable 실행 구간을 집계한다.
+ */
+@Slf4j
+@Component
+public class QueryGuardInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    @Value("${datajpa.query-guard.max-statements:10}")
+    private int maxStatements;
+
+    @Value("${datajpa.query-guard.latency-budget-ms:500}")
+    private long latencyBudgetMillis;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 결과를 쓰기 위한 재디스패치는 이미 postProcess 에서 집계했다.
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            QueryCountInspector.startRequest();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        report(request, QueryCountInspector.endRequest());
+    }
+
+    /**
+     * 비동기 요청의 SQL 은 preProcess/postProcess 에서 집계하므로 요청 스레드에 남은 통계는 정리만 한다.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountInspector.endRequest();
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        QueryCountInspector.startRequest();
+    }
+
+    /**
+     * Callable 이 예외로 끝나도 호출된다.
+     */
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        report(request.getNativeRequest(HttpServletRequest.class), QueryCountInspector.endRequest());
+    }
+
+    private void report(HttpServletRequest request, RequestQueryStats stats) {
+        if (stats == null || request == null) {
+            return;
+        }
+
+        long elapsedMillis = stats.getElapsedMillis();
+        if (stats.getStatements() > maxStatements || elapsedMillis > latencyBudgetMillis) {
+            Map.Entry<String, Integer> top = stats.getTopMethod();
+            log.warn("{} {} : SQL {}건, {}ms (기준 {}건, {}ms). 가장 많이 실행한 메소드 = {} ({}건)",
+                    request.getMethod(), request.getRequestURI(),
+                    stats.getStatements(), elapsedMillis, maxStatements, latencyBudgetMillis,
+                    top != null ? top.getKey() : null, top != null ? top.getValue() : 0);
+        }
+    }
+}
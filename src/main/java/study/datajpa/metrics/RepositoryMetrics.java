@@ -0,0 +1,52 @@
+package study.datajpa.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 리포지토리 메소드별 호출 수, 응답 시간 분포, 조회 건수, 엔티티 로딩 수, 캐시 적중 수를 모은다.
+ */
+@Component
+public class RepositoryMetrics {
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Method, MethodMetrics>> repositories = new ConcurrentHashMap<>();
+
+    public MethodMetrics metricsFor(String repositoryName, Method method) {
+        ConcurrentHashMap<Method, MethodMetrics> methods = repositories.get(repositoryName);
+        if (methods == null) {
+            methods = repositories.computeIfAbsent(repositoryName, name -> new ConcurrentHashMap<>());
+        }
+        MethodMetrics metrics = methods.get(method);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method, m -> new MethodMetrics(repositoryName + "." + signature(m)));
+        }
+        return metrics;
+    }
+
+    /**
+     * 누적 소요 시간이 큰 순서로 정렬한다.
+     */
+    public List<MethodMetrics> snapshot() {
+        List<MethodMetrics> result = new ArrayList<>();
+        repositories.values().forEach(methods -> result.addAll(methods.values()));
+        result.sort(Comparator.comparingLong((MethodMetrics m) -> m.getLatency().getTotalNanos()).reversed());
+        return result;
+    }
+
+    public void reset() {
+        repositories.clear();
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 리포지토리 프록시의 가장 바깥에서 호출 시간과 결과 건수를 기록한다.
+ */
+@RequiredArgsConstructor
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final RepositoryMetrics repositoryMetrics;
+    private final String repositoryName;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMetrics metrics = repositoryMetrics.metricsFor(repositoryName, invocation.getMethod());
+
+        long[] counters = HibernateThreadStatistics.currentThread();
+        long entityLoads = counters[HibernateThreadStatistics.ENTITY_LOADS];
+        long cacheHits = counters[HibernateThreadStatistics.SECOND_LEVEL_CACHE_HITS];
+        long cacheMisses = counters[HibernateThreadStatistics.SECOND_LEVEL_CACHE_MISSES];
+        long queryCacheHits = counters[HibernateThreadStatistics.QUERY_CACHE_HITS];
+        String previousMethod = QueryCountInspector.enterRepositoryMethod(metrics.getName());
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            metrics.getRows().add(rows(result));
+            return result;
+        } catch (Throwable e) {
+            metrics.getErrors().increment();
+            throw e;
+        } finally {
+            metrics.getLatency().record(System.nanoTime() - start);
+            QueryCountInspector.exitRepositoryMethod(previousMethod);
+            metrics.getEntityLoads().add(counters[HibernateThreadStatistics.ENTITY_LOADS] - entityLoads);
+            metrics.getSecondLevelCacheHits().add(counters[HibernateThreadStatistics.SECOND_LEVEL_CACHE_HITS] - cacheHits);
+            metrics.getSecondLevelCacheMisses().add(counters[HibernateThreadStatistics.SECOND_LEVEL_CACHE_MISSES] - cacheMisses);
+            metrics.getQueryCacheHits().add(counters[HibernateThreadStatistics.QUERY_CACHE_HITS] - queryCacheHits);
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return 0; // count, exists, bulk update 결과는 조회 건수가 아니다.
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * 스프링 데이터 리포지토리 프록시 맨 앞에 {@link RepositoryMetricsInterceptor} 를 추가한다.
+ * 다른 리포지토리 후처리기보다 나중에 실행되어 항상 가장 바깥에 놓이므로 측정 시간에 벌크 연산 이벤트 발행도 포함된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private final RepositoryMetrics repositoryMetrics;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised) {
+            ((Advised) bean).addAdvice(0, new RepositoryMetricsInterceptor(repositoryMetrics, beanName));
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
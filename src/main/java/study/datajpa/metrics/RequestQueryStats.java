@@ -0,0 +1,37 @@
+package study.datajpa.metrics;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP 요청 하나에서 실행된 SQL 수와 그 SQL 을 실행한 리포지토리 메소드.
+ */
+@Getter
+public class RequestQueryStats {
+
+    static final String OUTSIDE_REPOSITORY = "(repository 밖)";
+
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private final Map<String, Integer> statementsByMethod = new HashMap<>();
+
+    void record(String repositoryMethod) {
+        statements++;
+        statementsByMethod.merge(repositoryMethod != null ? repositoryMethod : OUTSIDE_REPOSITORY, 1, Integer::sum);
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * SQL 을 가장 많이 실행한 리포지토리 메소드
+     */
+    public Map.Entry<String, Integer> getTopMethod() {
+        return statementsByMethod.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
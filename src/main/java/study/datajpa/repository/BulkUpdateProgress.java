@@ -0,0 +1,20 @@
+package study.datajpa.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 단위 bulk update 의 진행 상황. 청크 하나가 커밋될 때마다 하나씩 전달된다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BulkUpdateProgress {
+    private final int chunk;
+    private final int totalChunks;
+    private final long fromId;
+    private final long toId;
+    private final int updatedInChunk;
+    private final int updatedTotal;
+}
@@ -0,0 +1,26 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemCustomRepository {
+
+    /**
+     * 신규 Item 임을 호출하는 쪽에서 알고 있을 때 사용한다.
+     * isNew() 판단이나 merge 조회 없이 batchSize 건씩 multi-row insert 로 저장한다.
+     * 이미 있는 id 가 섞여 있으면 제약조건 위반으로 실패한다.
+     * 저장한 Item 에는 생성일이 채워지므로 이후 save 하면 merge 로 처리된다.
+     *
+     * @return 저장한 건수
+     */
+    int insertAll(Collection<Item> items, int batchSize);
+
+    /**
+     * insertAll 과 같지만 H2 MERGE 를 사용해서 이미 있는 id 는 건드리지 않고 없는 id 만 저장한다.
+     * 이미 있던 Item 도 생성일이 비어 있으면 호출 시각으로 채워진다. (DB 값과 다를 수 있다.)
+     *
+     * @return 새로 저장된 건수
+     */
+    int mergeAll(Collection<Item> items, int batchSize);
+}
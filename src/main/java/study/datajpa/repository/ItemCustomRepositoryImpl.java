@@ -0,0 +1,84 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemCustomRepositoryImpl implements ItemCustomRepository {
+
+    // {values} 자리에 (?, ?), (?, ?) ... 가 들어간다.
+    private static final String VALUES = "{values}";
+    private static final String INSERT_SQL = "insert into item (id, created_date) values " + VALUES;
+
+    // 이미 있는 id 는 건너뛰고 없는 id 만 insert 한다. (VALUES 의 컬럼명은 C1, C2 ...)
+    private static final String MERGE_SQL = "merge into item t using (values " + VALUES + ") s on t.id = s.c1"
+            + " when not matched then insert (id, created_date) values (s.c1, s.c2)";
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public int insertAll(Collection<Item> items, int batchSize) {
+        return write(INSERT_SQL, items, batchSize);
+    }
+
+    @Override
+    @Transactional
+    public int mergeAll(Collection<Item> items, int batchSize) {
+        return write(MERGE_SQL, items, batchSize);
+    }
+
+    private int write(String sql, Collection<Item> items, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize 는 1 이상이어야 합니다.");
+        }
+
+        // native 쿼리라 AuditingEntityListener 가 동작하지 않으므로 생성일은 직접 넣는다.
+        LocalDateTime now = LocalDateTime.now();
+        int written = 0;
+        List<Item> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+        for (Item item : items) {
+            if (item.getId() == null) {
+                throw new IllegalArgumentException("id 가 없는 Item 은 저장할 수 없습니다.");
+            }
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                written += execute(sql, chunk, now);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            written += execute(sql, chunk, now);
+        }
+        return written;
+    }
+
+    private int execute(String sql, List<Item> chunk, LocalDateTime now) {
+        StringBuilder values = new StringBuilder(chunk.size() * 8);
+        for (int i = 0; i < chunk.size(); i++) {
+            values.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+
+        Query query = em.createNativeQuery(sql.replace(VALUES, values));
+        // 영향받는 엔티티를 알려주지 않으면 native 쿼리 실행 시 2차 캐시 전체가 비워진다.
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(Item.class);
+        int position = 1;
+        for (Item item : chunk) {
+            query.setParameter(position++, item.getId());
+            query.setParameter(position++, now);
+        }
+        int written = query.executeUpdate();
+        // isNew() 가 false 가 되어야 이후 save(item) 이 persist 대신 merge 로 동작한다.
+        chunk.forEach(item -> item.markCreated(now));
+        return written;
+    }
+}
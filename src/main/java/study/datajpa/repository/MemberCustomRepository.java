@@ -1,9 +1,101 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.CountStrategy;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MemberCustomRepository {
     List<Member> findMemberCustom();
+
+    /**
+     * member_id 기준 keyset(seek) 페이징. offset, count 쿼리 없이 lastId 다음부터 limit 건을 조회한다.
+     *
+     * @param lastId 이전 페이지의 마지막 id, 첫 페이지는 null
+     */
+    List<Member> findMembersAfterId(Long lastId, int limit);
+
+    /**
+     * (username, member_id) 기준 keyset(seek) 페이징. username 이 없는 회원은 제외된다.
+     *
+     * @param lastUsername 이전 페이지의 마지막 username, 첫 페이지는 null
+     * @param lastId       이전 페이지의 마지막 id, 첫 페이지는 null
+     */
+    List<Member> findMembersAfterUsername(String lastUsername, Long lastId, int limit);
+
+    /**
+     * 회원 전체를 List 로 모으지 않고 커서로 한 건씩 읽어 consumer 에 넘긴다.
+     * clearInterval 건마다 영속성 컨텍스트를 비워서 테이블 크기와 상관없이 메모리 사용량이 일정하다.
+     *
+     * @param fetchSize     JDBC fetch size
+     * @param clearInterval 영속성 컨텍스트를 비우는 주기(건수)
+     * @return 내보낸 회원 수
+     * @throws IllegalArgumentException fetchSize 나 clearInterval 이 1 보다 작은 경우
+     */
+    long exportMembers(int fetchSize, int clearInterval, Consumer<Member> consumer);
+
+    /**
+     * 대량 저장용. batchSize 건마다 flush 해서 JDBC batch insert 로 내보내고 저장한 회원을 준영속으로 만든다.
+     * 저장이 끝나면 넘겨준 회원들은 준영속 상태가 된다. 호출한 쪽 트랜잭션이 관리하던 다른 엔티티는 영속 상태로 남지만,
+     * flush 되므로 변경 내용은 이 시점에 DB 에 반영된다.
+     *
+     * @return 저장한 회원 수
+     * @throws IllegalArgumentException batchSize 가 1 보다 작은 경우
+     */
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    /**
+     * bulkAgePlus 를 member_id 순서로 chunkSize 건씩 나눠서(keyset) 청크마다 별도 트랜잭션으로 실행한다.
+     * 한 번에 잡는 row lock 과 undo log 가 chunkSize 건으로 제한된다.
+     * 영속성 컨텍스트 전체를 비우지 않고, 현재 트랜잭션에 올라와 있는 변경 대상 회원만 준영속으로 만든다.
+     * 청크마다 커밋되므로 변경 대상 회원을 수정 중인 트랜잭션 안에서 호출하면 안 된다.
+     *
+     * @param username 이 이름의 회원만 변경한다. null 이면 전체 회원이 대상이다.
+     * @param progress 청크가 커밋될 때마다 호출된다.
+     * @return 변경된 회원 수
+     */
+    int bulkAgePlusInChunks(String username, int age, int chunkSize, Consumer<BulkUpdateProgress> progress);
+
+    /**
+     * 나이가 age 인 회원 페이지. 전체 건수는 datajpa.count.methods.MemberRepository.findByAge 전략으로 구한다. (기본 slice)
+     */
+    Page<Member> findByAge(int age, Pageable pageable);
+
+    /**
+     * findByAge 와 같지만 이번 호출에만 countStrategy 를 사용한다.
+     */
+    Page<Member> findPageByAge(int age, Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * Spring Data 기본 구현 대신 datajpa.count.methods.MemberRepository.findAll 전략으로 전체 건수를 구한다. (기본 slice)
+     */
+    Page<Member> findAll(Pageable pageable);
+
+    /**
+     * 전체 회원을 조회한다. 연관관계는 fetchPlan 만큼만 같이 읽는다.
+     */
+    List<Member> findAll(MemberFetchPlan fetchPlan);
+
+    /**
+     * 페이징 조회. TEAM_MEMBERS 여도 컬렉션을 조인하지 않으므로 페이징이 DB 에서 처리된다.
+     * 전체 건수는 findAll(pageable) 과 같은 전략으로 구한다.
+     */
+    Page<Member> findAll(MemberFetchPlan fetchPlan, Pageable pageable);
+
+    /**
+     * findByNativProjection 과 같은 네이티브 쿼리지만 결과를 Map 기반 프록시 대신 MemberDto 로 바로 받는다.
+     * 정렬은 MemberDto 의 id, username, teamName 으로 할 수 있고, 없으면 member_id 순이다.
+     *
+     * @throws IllegalArgumentException 그 외 속성으로 정렬하는 경우
+     */
+    Page<MemberDto> findMemberDtoPageNative(Pageable pageable);
+
+    /**
+     * DB 통계 기준의 회원 수 추정치. count 쿼리보다 훨씬 싸지만 정확하지 않다.
+     */
+    long estimateMemberCount();
 }
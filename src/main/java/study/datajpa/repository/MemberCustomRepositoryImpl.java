@@ -1,14 +1,53 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.cache.EntityChangedEvent;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.CountKey;
+import study.datajpa.repository.support.CountStrategies;
+import study.datajpa.repository.support.CountStrategy;
 
+import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class MemberCustomRepositoryImpl implements MemberCustomRepository {
 
+    // findMemberDtoPageNative 에서 정렬할 수 있는 MemberDto 속성과 네이티브 컬럼
+    private static final Map<String, String> NATIVE_SORT_COLUMNS = Map.of(
+            "id", "m.member_id",
+            "username", "m.username",
+            "teamName", "t.name");
+
     private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CountStrategies countStrategies;
 
     @Override
     public List<Member> findMemberCustom(){
@@ -16,4 +55,269 @@ public class MemberCustomRepositoryImpl implements MemberCustomRepository {
                 .getResultList();
     }
 
+    @Override
+    public List<Member> findMembersAfterId(Long lastId, int limit) {
+        if (lastId == null) {
+            return em.createQuery("select m from Member m order by m.id", Member.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("select m from Member m where m.id > :lastId order by m.id", Member.class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Member> findMembersAfterUsername(String lastUsername, Long lastId, int limit) {
+        if (lastUsername == null || lastId == null) {
+            return em.createQuery("select m from Member m where m.username is not null" +
+                            " order by m.username, m.id", Member.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("select m from Member m" +
+                        " where m.username > :lastUsername" +
+                        " or (m.username = :lastUsername and m.id > :lastId)" +
+                        " order by m.username, m.id", Member.class)
+                .setParameter("lastUsername", lastUsername)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long exportMembers(int fetchSize, int clearInterval, Consumer<Member> consumer) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize 는 1 이상이어야 합니다.");
+        }
+        if (clearInterval < 1) {
+            throw new IllegalArgumentException("clearInterval 은 1 이상이어야 합니다.");
+        }
+        long count = 0;
+        // team 은 fetch join 으로 같이 읽어야 clear 이후에도 지연 로딩 없이 접근할 수 있다.
+        try (Stream<Member> stream = em.createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()) {
+            Iterator<Member> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++count % clearInterval == 0) {
+                    em.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize 는 1 이상이어야 합니다.");
+        }
+        int count = 0;
+        List<Member> batch = new ArrayList<>(batchSize);
+        for (Member member : members) {
+            em.persist(member);
+            batch.add(member);
+            count++;
+            if (batch.size() == batchSize) {
+                flushAndDetach(batch);
+            }
+        }
+        flushAndDetach(batch);
+        return count;
+    }
+
+    /**
+     * em.clear() 와 달리 호출한 쪽 트랜잭션이 관리하던 다른 엔티티는 그대로 둔다.
+     */
+    private void flushAndDetach(List<Member> batch) {
+        em.flush();
+        for (Member member : batch) {
+            em.detach(member);
+        }
+        batch.clear();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS) // 청크 트랜잭션은 직접 연다. 호출한 쪽 트랜잭션이 있으면 그 영속성 컨텍스트를 정리한다.
+    public int bulkAgePlusInChunks(String username, int age, int chunkSize, Consumer<BulkUpdateProgress> progress) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다.");
+        }
+        TransactionTemplate chunkTx = new TransactionTemplate(transactionManager);
+        chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        String where = " where m.age >= :age" + (username != null ? " and m.username = :username" : "");
+        Long targets = chunkTx.execute(status ->
+                bindFilter(em.createQuery("select count(m) from Member m" + where, Long.class), username, age)
+                        .getSingleResult());
+        if (targets == null || targets == 0) {
+            return 0;
+        }
+        int totalChunks = (int) ((targets + chunkSize - 1) / chunkSize);
+
+        // id 구간이 아니라 마지막으로 처리한 id 다음부터 chunkSize 건씩 잘라서, id 가 듬성듬성해도 청크 크기가 일정하다.
+        long lastId = 0L;
+        int chunk = 0;
+        int updatedTotal = 0;
+        int[] updatedInChunk = new int[1];
+        while (true) {
+            long afterId = lastId;
+            updatedInChunk[0] = 0;
+            List<Long> ids = chunkTx.execute(status -> {
+                List<Long> affected = bindFilter(em.createQuery("select m.id from Member m" + where +
+                                " and m.id > :lastId order by m.id", Long.class), username, age)
+                        .setParameter("lastId", afterId)
+                        .setMaxResults(chunkSize)
+                        .getResultList();
+                if (!affected.isEmpty()) {
+                    updatedInChunk[0] = em.createQuery("update Member m set m.age = :age, m.version = m.version + 1" +
+                                    " where m.id in :ids and m.age >= :age")
+                            .setParameter("age", age)
+                            .setParameter("ids", affected)
+                            .executeUpdate();
+                    eventPublisher.publishEvent(EntityChangedEvent.bulk(Member.class)); // 청크가 커밋되면 전달된다.
+                }
+                return affected;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+
+            chunk++;
+            totalChunks = Math.max(totalChunks, chunk); // 처리 중에 대상이 늘어난 경우
+            lastId = ids.get(ids.size() - 1);
+            detachManagedMembers(ids);
+            updatedTotal += updatedInChunk[0];
+            progress.accept(new BulkUpdateProgress(chunk, totalChunks, ids.get(0), lastId, updatedInChunk[0], updatedTotal));
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        return updatedTotal;
+    }
+
+    private static <T> TypedQuery<T> bindFilter(TypedQuery<T> query, String username, int age) {
+        query.setParameter("age", age);
+        if (username != null) {
+            query.setParameter("username", username);
+        }
+        return query;
+    }
+
+    /**
+     * clearAutomatically 처럼 영속성 컨텍스트를 통째로 비우지 않고, 변경된 회원만 준영속으로 만든다.
+     * 다음 조회 때 DB 에서 바뀐 값을 다시 읽는다.
+     */
+    private void detachManagedMembers(List<Long> ids) {
+        if (ids.isEmpty() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        PersistenceContext persistenceContext = session.getPersistenceContext();
+        for (Long id : ids) {
+            Object managed = persistenceContext.getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                em.detach(managed);
+            }
+        }
+    }
+
+    @Override
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        return findPageByAge(age, pageable, countStrategies.forMethod("MemberRepository.findByAge"));
+    }
+
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable, CountStrategy countStrategy) {
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class)
+                .setParameter("age", age);
+
+        return countStrategy.page(query, pageable, CountKey.of("MemberRepository.findByAge", age),
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
+    }
+
+    @Override
+    public List<Member> findAll(MemberFetchPlan fetchPlan) {
+        List<Member> members = withFetchPlan(em.createQuery("select m from Member m", Member.class), fetchPlan)
+                .getResultList();
+        fetchPlan.initialize(members);
+        return members;
+    }
+
+    @Override
+    public Page<Member> findAll(Pageable pageable) {
+        return findAll(MemberFetchPlan.NONE, pageable);
+    }
+
+    @Override
+    public Page<Member> findAll(MemberFetchPlan fetchPlan, Pageable pageable) {
+        String jpql = QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m");
+        TypedQuery<Member> query = withFetchPlan(em.createQuery(jpql, Member.class), fetchPlan);
+
+        Page<Member> page = countStrategies.forMethod("MemberRepository.findAll").page(query, pageable,
+                CountKey.of("MemberRepository.findAll"),
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult());
+        fetchPlan.initialize(page.getContent());
+        return page;
+    }
+
+    private TypedQuery<Member> withFetchPlan(TypedQuery<Member> query, MemberFetchPlan fetchPlan) {
+        EntityGraph<Member> graph = fetchPlan.entityGraph(em);
+        return graph == null ? query : query.setHint(MemberFetchPlan.FETCH_GRAPH_HINT, graph);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<MemberDto> findMemberDtoPageNative(Pageable pageable) {
+        Query query = em.createNativeQuery("select m.member_id as id, m.username, t.name as team_name" +
+                " from member m left join team t on m.team_id = t.team_id" +
+                nativeOrderBy(pageable.getSort()), "MemberDtoMapping");
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<MemberDto> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ((Number) em.createNativeQuery("select count(*) from member").getSingleResult()).longValue());
+    }
+
+    /**
+     * 같은 값이 여러 건이어도 페이지 경계가 흔들리지 않도록 마지막에 member_id 를 붙인다.
+     */
+    private static String nativeOrderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = NATIVE_SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty()
+                        + " (가능한 속성: " + NATIVE_SORT_COLUMNS.keySet() + ")");
+            }
+            byId |= "id".equals(order.getProperty());
+            orderBy.add((order.isIgnoreCase() ? "lower(" + column + ")" : column) + " " + order.getDirection().name().toLowerCase());
+        }
+        if (!byId) {
+            orderBy.add("m.member_id");
+        }
+        return orderBy.toString();
+    }
+
+    @Override
+    public long estimateMemberCount() {
+        Number estimate = (Number) em.createNativeQuery("select row_count_estimate from information_schema.tables" +
+                        " where table_schema = schema() and table_name = 'MEMBER'")
+                .getSingleResult();
+        return estimate.longValue();
+    }
+
 }
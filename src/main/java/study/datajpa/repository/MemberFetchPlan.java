@@ -0,0 +1,62 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 회원을 조회할 때 같이 읽을 연관관계. 호출하는 쪽이 실제로 쓰는 만큼만 고른다.
+ */
+public enum MemberFetchPlan {
+
+    /**
+     * 회원만 조회한다. team 은 지연 로딩된다.
+     */
+    NONE,
+
+    /**
+     * team 을 같은 쿼리에서 left join fetch 한다.
+     */
+    TEAM,
+
+    /**
+     * TEAM 에 더해 팀의 members 컬렉션까지 초기화한다.
+     * 컬렉션까지 조인하면 row 가 팀원 수만큼 곱해지므로, 컬렉션은 batch fetch(IN 쿼리)로 따로 읽는다.
+     */
+    TEAM_MEMBERS;
+
+    static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    /**
+     * 쿼리에 javax.persistence.fetchgraph 힌트로 넘길 그래프, 없으면 null
+     */
+    EntityGraph<Member> entityGraph(EntityManager em) {
+        if (this == NONE) {
+            return null;
+        }
+        EntityGraph<Member> graph = em.createEntityGraph(Member.class);
+        graph.addAttributeNodes("team");
+        return graph;
+    }
+
+    /**
+     * 쿼리로 읽지 않은 나머지 연관관계를 초기화한다.
+     */
+    void initialize(List<Member> members) {
+        if (this != TEAM_MEMBERS) {
+            return;
+        }
+        Set<Team> teams = new LinkedHashSet<>();
+        members.stream().map(Member::getTeam).filter(Objects::nonNull).forEach(teams::add);
+        for (Team team : teams) {
+            Hibernate.initialize(team.getMembers()); // default_batch_fetch_size 만큼 묶어서 읽는다.
+        }
+    }
+}
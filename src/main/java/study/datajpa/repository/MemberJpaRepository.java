@@ -1,24 +1,35 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.cache.EntityChangedEvent;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.CountKey;
+import study.datajpa.repository.support.CountStrategies;
+import study.datajpa.repository.support.CountStrategy;
 
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true) // 조회는 스냅샷 없이 FlushMode.MANUAL 로 실행된다.
 @RequiredArgsConstructor
 public class MemberJpaRepository {
 
     private final EntityManager em;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CountStrategies countStrategies;
 
+    @Transactional
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
@@ -55,16 +66,23 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * datajpa.count.methods.MemberJpaRepository.totalCount 전략으로 구한다. slice 면 count 쿼리를 실행한다.
+     */
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age order by m.username desc", Long.class)
-                .setParameter("age", age)
-                .getSingleResult();
+        CountStrategy countStrategy = countStrategies.forMethod("MemberJpaRepository.totalCount");
+        return countStrategy.count(CountKey.of("MemberJpaRepository.totalCount", age),
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
     }
 
+    @Transactional
     public int bulkAgePlus(int age) {
-        int updateCount = em.createQuery("update Member m set m.age = :age where m.age >= :age")
+        int updateCount = em.createQuery("update Member m set m.age = :age, m.version = m.version + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
+        eventPublisher.publishEvent(EntityChangedEvent.bulk(Member.class));
         return updateCount;
     }
 }
@@ -2,15 +2,26 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.UsernameAgeDto;
 import study.datajpa.entity.Member;
 
+import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberCustomRepository, JpaSpecificationExecutor {
+/**
+ * 선언한 쿼리 메소드는 기본으로 읽기 전용 트랜잭션에서 실행된다.
+ * (하이버네이트 세션 read-only + FlushMode.MANUAL, 레플리카가 설정되어 있으면 레플리카로 라우팅)
+ * 변경 쿼리는 메소드에 @Transactional 을 따로 붙여야 한다.
+ */
+@Transactional(readOnly = true)
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberCustomRepository, MemberSearchRepository, JpaSpecificationExecutor {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -33,37 +44,54 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m inner join m.team t")
     List<MemberDto> findMemberDtos();
 
-    @Query(value = "select m from Member m",
-            countQuery = "select count (m.username) from Member m")
-    Page<Member> findByAge(int age, Pageable pageable);
+    /**
+     * 엔티티를 거치지 않고 필요한 컬럼(id, username, team.name)만 DTO 로 바로 조회한다.
+     * 영속성 컨텍스트에 엔티티나 스냅샷이 올라가지 않는다. 팀이 없는 회원도 포함된다.
+     */
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Slice<MemberDto> findMemberDtoSlice(Pageable pageable);
+
+    // count 쿼리 없이 size + 1 건을 조회해서 다음 페이지 존재 여부만 판단한다.
+    Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    @Transactional
     @Modifying(clearAutomatically = true) // 쿼리 이후 영속성 컨텍스트를 자동으로 클리어한다.
-    @Query("update Member m set m.age = :age where m.age >= :age")
+    @Query("update Member m set m.age = :age, m.version = m.version + 1 where m.age >= :age") // 벌크 연산도 버전을 올려야 동시 수정이 감지된다.
     int bulkAgePlus(@Param("age") int age);
 
+    // 팀이 있는 회원만 조회한다. 팀이 없는 회원까지 필요하면 findAll(MemberFetchPlan.TEAM)
     @Query("select m from Member m join fetch m.team")
     List<Member> findMemberFetchJoin();
 
-    @Override
-    @EntityGraph(attributePaths = {"team"})
-    List<Member> findAll();
-
     List<Member> findMemberByUsername(@Param("username") String username);
 
     @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
         //하이버네이트 내부적으로 스냅샷을 생성하지 않게 한다.
     Member findReadOnlyByUsername(String username);
 
-//    @Lock(LockModeType.PESSIMISTIC_WRITE)
-//    List<Member> findMemberByUsernameWithLock(String username);
+    /**
+     * select ... for update. 커밋할 때까지 다른 트랜잭션의 수정을 막는다.
+     * 충돌이 잦지 않으면 @Version 과 OptimisticRetryExecutor 를 쓰는 편이 처리량이 높다.
+     */
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Member m where m.id = :id")
+    Optional<Member> findByIdForUpdate(@Param("id") Long id);
 
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
 
+    // 생성자 표현식(select new ...)으로 username, age 만 조회한다.
+    List<UsernameAgeDto> findDtoByUsername(@Param("username") String username);
+
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     List<Member> findByNativeQuery(String username);
 
     @Query(value = "select m.member_id as id, m.username, t.name as teamName" +
-            " from member m left join team t",
+            " from member m left join team t on m.team_id = t.team_id",
             countQuery = "select count (*) from member",
             nativeQuery = true)
     Page<MemberProjection> findByNativProjection(Pageable pageable);
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+
+import java.util.List;
+
+public interface MemberSearchRepository {
+
+    int DEFAULT_LIMIT = 100;
+    int MAX_LIMIT = 1000;
+
+    /**
+     * MemberSpec 조합과 같은 검색을 하지만 Criteria 를 매번 만들지 않는다.
+     * 조건 조합별 JPQL 은 한 번만 만들고 이후에는 파라미터만 바인딩한다.
+     * 팀 조건이 있을 때만 team 을 조인하고, member_id 순으로 condition.limit 건까지만 DB 에서 읽는다.
+     */
+    List<Member> search(MemberSearchCondition condition);
+}
@@ -0,0 +1,125 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.support.SearchPlanCache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberSearchRepositoryImpl implements MemberSearchRepository {
+
+    private final EntityManager em;
+    private final SearchPlanCache searchPlanCache;
+
+    @Override
+    public List<Member> search(MemberSearchCondition condition) {
+        int shape = shapeOf(condition);
+        String jpql = searchPlanCache.get("Member.search", shape, MemberSearchRepositoryImpl::compile);
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class);
+        for (Filter filter : Filter.values()) {
+            if (filter.in(shape)) {
+                query.setParameter(filter.parameter, filter.value.apply(condition));
+            }
+        }
+        return query.setMaxResults(limitOf(condition)).getResultList();
+    }
+
+    private static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        for (Filter filter : Filter.values()) {
+            if (filter.value.apply(condition) != null) {
+                shape |= filter.bit();
+            }
+        }
+        return shape;
+    }
+
+    private static int limitOf(MemberSearchCondition condition) {
+        if (condition.getLimit() == null || condition.getLimit() <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(condition.getLimit(), MAX_LIMIT);
+    }
+
+    private static String compile(int shape) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if (Filter.needsTeam(shape)) {
+            jpql.append(" join m.team t"); // 팀 조건이 있을 때만 조인
+        }
+        String prefix = " where ";
+        for (Filter filter : Filter.values()) {
+            if (filter.in(shape)) {
+                jpql.append(prefix).append(filter.predicate);
+                prefix = " and ";
+            }
+        }
+        return jpql.append(" order by m.id").toString();
+    }
+
+    /**
+     * 검색 조건 하나. 조건 값이 null 이면 쓰지 않은 조건이다.
+     */
+    private enum Filter {
+        USERNAME("m.username = :username", "username", false,
+                c -> StringUtils.hasLength(c.getUsername()) ? c.getUsername() : null),
+        USERNAME_PREFIX("m.username like :usernamePrefix escape '!'", "usernamePrefix", false,
+                c -> StringUtils.hasLength(c.getUsernamePrefix()) ? escapeLike(c.getUsernamePrefix()) + "%" : null),
+        TEAM_NAME("t.name = :teamName", "teamName", true,
+                c -> StringUtils.hasLength(c.getTeamName()) ? c.getTeamName() : null),
+        TEAM_NAMES("t.name in :teamNames", "teamNames", true,
+                c -> isEmpty(c.getTeamNames()) ? null : c.getTeamNames()),
+        AGE_GOE("m.age >= :ageGoe", "ageGoe", false, MemberSearchCondition::getAgeGoe),
+        AGE_LOE("m.age <= :ageLoe", "ageLoe", false, MemberSearchCondition::getAgeLoe),
+        CREATED_FROM("m.creadtedDate >= :createdFrom", "createdFrom", false, MemberSearchCondition::getCreatedFrom),
+        CREATED_TO("m.creadtedDate <= :createdTo", "createdTo", false, MemberSearchCondition::getCreatedTo),
+        MODIFIED_FROM("m.lastModifiedDate >= :modifiedFrom", "modifiedFrom", false, MemberSearchCondition::getModifiedFrom),
+        MODIFIED_TO("m.lastModifiedDate <= :modifiedTo", "modifiedTo", false, MemberSearchCondition::getModifiedTo);
+
+        private final String predicate;
+        private final String parameter;
+        private final boolean team;
+        private final Function<MemberSearchCondition, Object> value;
+
+        Filter(String predicate, String parameter, boolean team, Function<MemberSearchCondition, Object> value) {
+            this.predicate = predicate;
+            this.parameter = parameter;
+            this.team = team;
+            this.value = value;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+
+        boolean in(int shape) {
+            return (shape & bit()) != 0;
+        }
+
+        static boolean needsTeam(int shape) {
+            for (Filter filter : values()) {
+                if (filter.team && filter.in(shape)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String escapeLike(String value) {
+            return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        }
+
+        private static boolean isEmpty(Collection<?> values) {
+            return values == null || values.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Team;
+
+public interface TeamCustomRepository {
+
+    /**
+     * 팀 페이지를 members 컬렉션까지 초기화해서 조회한다.
+     * 컬렉션을 fetch join 한 채로 페이징하면 하이버네이트가 전체를 읽어 메모리에서 자른다(HHH000104).
+     * 대신 1) 페이지에 해당하는 팀 id 만 DB 에서 limit/offset 으로 조회하고
+     * 2) 그 id 들로 팀과 members 를 IN 청크 단위로 fetch join 한다.
+     * 한 번에 메모리에 올라오는 팀은 페이지 크기로 제한된다.
+     */
+    Page<Team> findTeamsWithMembers(Pageable pageable);
+}
@@ -0,0 +1,60 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamCustomRepositoryImpl implements TeamCustomRepository {
+
+    // IN 절 파라미터 수 제한. 페이지가 이보다 크면 나눠서 조회한다.
+    private static final int IN_CHUNK_SIZE = 500;
+
+    private final EntityManager em;
+
+    @Override
+    public Page<Team> findTeamsWithMembers(Pageable pageable) {
+        // 1단계: 정렬/페이징은 팀 id 만으로 DB 에서 처리한다.
+        String jpql = QueryUtils.applySorting("select t.id from Team t", pageable.getSort(), "t");
+        TypedQuery<Long> idQuery = em.createQuery(jpql, Long.class);
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = idQuery.getResultList();
+
+        // 2단계: 해당 팀과 members 를 fetch join 한다. 결과 순서는 보장되지 않으므로 1단계 순서로 다시 맞춘다.
+        Map<Long, Team> teams = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            em.createQuery("select distinct t from Team t left join fetch t.members where t.id in :ids", Team.class)
+                    .setParameter("ids", chunk)
+                    .setHint("hibernate.query.passDistinctThrough", false) // distinct 는 SQL 로 보내지 않는다.
+                    .getResultList()
+                    .forEach(team -> teams.put(team.getId(), team));
+        }
+
+        List<Team> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Team team = teams.get(id);
+            if (team != null) { // 두 쿼리 사이에 삭제된 팀
+                content.add(team);
+            }
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> em.createQuery("select count(t) from Team t", Long.class).getSingleResult());
+    }
+}
@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
 import javax.persistence.EntityManager;
@@ -9,16 +10,19 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true) // 조회는 스냅샷 없이 FlushMode.MANUAL 로 실행된다.
 @RequiredArgsConstructor
 public class TeamJpaRepository {
 
     private final EntityManager em;
 
+    @Transactional
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    @Transactional
     public void delete(Team team) {
         em.remove(team);
     }
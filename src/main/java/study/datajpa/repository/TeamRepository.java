@@ -1,9 +1,24 @@
 package study.datajpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
 // @Repository 생략이 가능하다.
-public interface TeamRepository extends JpaRepository<Team,Long> {
+@Transactional(readOnly = true)
+public interface TeamRepository extends JpaRepository<Team,Long>, TeamCustomRepository {
+
+    // 쿼리 캐시. 결과 id 목록만 캐시하고 엔티티는 2차 캐시에서 가져온다.
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Team> findAll();
+
+    // 팀 이름은 유일하지 않으므로 목록으로 받는다.
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Team> findByName(String name);
 }
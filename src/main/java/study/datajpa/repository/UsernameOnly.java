@@ -1,10 +1,15 @@
 package study.datajpa.repository;
 
-import org.springframework.beans.factory.annotation.Value;
-
+/**
+ * 닫힌 프로젝션. username, age 컬럼만 조회한다.
+ * default 메소드는 프로젝션 프로퍼티로 보지 않으므로 SpEL(@Value) 없이 조합 값을 만들 수 있다.
+ */
 public interface UsernameOnly {
     String getUsername();
 
-    @Value("#{target.username + ' ' + target.age}")
-    String getUsernameAndAge();
+    int getAge();
+
+    default String getUsernameAndAge() {
+        return getUsername() + " " + getAge();
+    }
 }
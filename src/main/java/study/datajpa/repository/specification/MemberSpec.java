@@ -6,7 +6,14 @@ import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
 import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
+/**
+ * 값이 없으면 null 을 반환해서 조건에서 빠진다. 팀 조건끼리는 조인 하나를 같이 쓴다.
+ * 호출할 때마다 Criteria 를 새로 만들고 JPQL 로 바꾼다. 조건 조합별 쿼리를 재사용하는 반복 검색은
+ * MemberSearchRepository.search(MemberSearchCondition) 를 사용한다. (같은 조건을 모두 지원한다)
+ */
 public class MemberSpec {
     public static Specification<Member> teamName(final String teamName){
         return (root, query, criteriaBuilder) -> {
@@ -15,11 +22,20 @@ public class MemberSpec {
                 return null;
             }
 
-            Join<Member, Team> t = root.join("team", JoinType.INNER);// 회원과 조인
+            Join<Member, Team> t = teamJoin(root);// 회원과 조인
             return criteriaBuilder.equal(t.get("name"), teamName);
         };
     }
 
+    public static Specification<Member> teamNameIn(final Collection<String> teamNames){
+        return (root, query, criteriaBuilder) -> {
+            if(teamNames == null || teamNames.isEmpty()){
+                return null;
+            }
+            return teamJoin(root).get("name").in(teamNames);
+        };
+    }
+
     public static Specification<Member> username(final String username){
         return (root, query, criteriaBuilder) -> {
             if(StringUtils.isEmpty(username)){
@@ -28,4 +44,52 @@ public class MemberSpec {
             return criteriaBuilder.equal(root.get("username"), username);
         };
     }
+
+    public static Specification<Member> usernameStartsWith(final String prefix){
+        return (root, query, criteriaBuilder) -> {
+            if(StringUtils.isEmpty(prefix)){
+                return null;
+            }
+            String escaped = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            return criteriaBuilder.like(root.get("username"), escaped + "%", '!');
+        };
+    }
+
+    public static Specification<Member> ageBetween(final Integer goe, final Integer loe){
+        return (root, query, criteriaBuilder) -> between(criteriaBuilder, root.get("age"), goe, loe);
+    }
+
+    public static Specification<Member> createdBetween(final LocalDateTime from, final LocalDateTime to){
+        return (root, query, criteriaBuilder) -> between(criteriaBuilder, root.get("creadtedDate"), from, to);
+    }
+
+    public static Specification<Member> modifiedBetween(final LocalDateTime from, final LocalDateTime to){
+        return (root, query, criteriaBuilder) -> between(criteriaBuilder, root.get("lastModifiedDate"), from, to);
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate between(CriteriaBuilder criteriaBuilder, Path<Y> path, Y from, Y to){
+        if(from != null && to != null){
+            return criteriaBuilder.between(path, from, to);
+        }
+        if(from != null){
+            return criteriaBuilder.greaterThanOrEqualTo(path, from);
+        }
+        if(to != null){
+            return criteriaBuilder.lessThanOrEqualTo(path, to);
+        }
+        return null;
+    }
+
+    /**
+     * 이미 만든 팀 조인이 있으면 재사용한다.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Member, Team> teamJoin(Root<Member> root){
+        for (Join<Member, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("team") && join.getJoinType() == JoinType.INNER) {
+                return (Join<Member, Team>) join;
+            }
+        }
+        return root.join("team", JoinType.INNER);
+    }
 }
@@ -0,0 +1,35 @@
+package study.datajpa.repository.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * 조회 조건(key)별 count 결과를 ttl 동안 캐시한다.
+ * 키 개수가 maxKeys 를 넘으면 오래 쓰이지 않은 키부터 제거해서 메모리 사용량을 제한한다.
+ */
+public class CachedCountStrategy implements CountStrategy {
+
+    static final int DEFAULT_MAX_KEYS = 1000;
+
+    private final Cache<CountKey, Long> counts;
+
+    public CachedCountStrategy(Duration ttl, int maxKeys) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    @Override
+    public long count(CountKey key, LongSupplier exactCount) {
+        // 같은 키로 동시에 들어오면 count 쿼리는 한 번만 실행된다.
+        return counts.get(key, k -> exactCount.getAsLong());
+    }
+
+    public void evictAll() {
+        counts.invalidateAll();
+    }
+}
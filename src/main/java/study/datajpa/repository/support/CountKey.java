@@ -0,0 +1,39 @@
+package study.datajpa.repository.support;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * count 를 구분하는 키. 쿼리 이름과 조회 조건 값으로 이루어진다.
+ * 조건이 없는 키만 테이블 전체 건수(추정치)로 대신할 수 있다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class CountKey {
+
+    private final String query;
+    private final List<Object> filter;
+
+    private CountKey(String query, List<Object> filter) {
+        this.query = query;
+        this.filter = filter;
+    }
+
+    /**
+     * @param query  리포지토리.메소드 처럼 count 쿼리를 구분하는 이름
+     * @param filter 조회 조건 값. 같은 값이면 같은 건수를 가져야 한다.
+     */
+    public static CountKey of(String query, Object... filter) {
+        return new CountKey(query, Collections.unmodifiableList(Arrays.asList(filter)));
+    }
+
+    public boolean isFiltered() {
+        return !filter.isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 리포지토리 메소드별 count 전략. datajpa.count.methods.{리포지토리}.{메소드} 에 exact, cached, slice 중 하나를 지정한다.
+ * 지정하지 않은 메소드는 datajpa.count.default(기본 slice)를 따른다.
+ * <pre>
+ * datajpa.count.methods.MemberRepository.findByAge=cached
+ * </pre>
+ */
+@Component
+public class CountStrategies {
+
+    private final Environment environment;
+    private final String defaultStrategy;
+    private final CountStrategy cached;
+    private final Map<String, CountStrategy> strategies = new ConcurrentHashMap<>();
+
+    public CountStrategies(Environment environment,
+                           @Value("${datajpa.count.default:slice}") String defaultStrategy,
+                           @Value("${datajpa.count.cached-ttl-seconds:60}") long cachedTtlSeconds) {
+        this.environment = environment;
+        this.defaultStrategy = defaultStrategy;
+        this.cached = CountStrategy.cached(Duration.ofSeconds(cachedTtlSeconds)); // 키에 메소드 이름이 들어가므로 같이 써도 된다.
+    }
+
+    public CountStrategy forMethod(String method) {
+        return strategies.computeIfAbsent(method, name ->
+                byName(environment.getProperty("datajpa.count.methods." + name, defaultStrategy), name));
+    }
+
+    private CountStrategy byName(String strategy, String method) {
+        switch (strategy) {
+            case "exact":
+                return CountStrategy.exact();
+            case "cached":
+                return cached;
+            case "slice":
+                return CountStrategy.slice();
+            default:
+                throw new IllegalStateException(method + " 의 count 전략을 알 수 없습니다: " + strategy + " (exact, cached, slice)");
+        }
+    }
+}
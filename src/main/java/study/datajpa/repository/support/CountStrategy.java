@@ -0,0 +1,72 @@
+package study.datajpa.repository.support;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.TypedQuery;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Page 의 전체 건수를 구하는 방법. 리포지토리 메소드마다 다른 전략을 쓸 수 있다. ({@link CountStrategies})
+ * 기본은 {@link #slice()} 로 count 쿼리를 실행하지 않는다.
+ */
+@FunctionalInterface
+public interface CountStrategy {
+
+    /**
+     * @param key        조회 조건을 구분하는 키. 같은 키는 같은 건수를 가져야 한다.
+     * @param exactCount 실제 count 쿼리
+     */
+    long count(CountKey key, LongSupplier exactCount);
+
+    /**
+     * query 로 pageable 의 페이지를 조회한다.
+     * 마지막 페이지처럼 조회 결과만으로 전체 건수를 알 수 있으면 count 자체를 생략한다.
+     */
+    default <T> Page<T> page(TypedQuery<T> query, Pageable pageable, CountKey key, LongSupplier exactCount) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = query.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(key, exactCount));
+    }
+
+    /**
+     * 매번 count 쿼리를 실행한다.
+     */
+    static CountStrategy exact() {
+        return (key, exactCount) -> exactCount.getAsLong();
+    }
+
+    /**
+     * 조회 조건별로 count 결과를 ttl 동안 재사용한다. 같은 인스턴스를 계속 사용해야 캐시가 유지된다.
+     */
+    static CountStrategy cached(Duration ttl) {
+        return new CachedCountStrategy(ttl, CachedCountStrategy.DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * count 쿼리 대신 DB 통계의 테이블 전체 건수 추정치를 사용한다.
+     * 조건이 있는 조회에 쓰면 조건과 상관없는 값이 나오므로 IllegalArgumentException 을 던진다.
+     */
+    static CountStrategy estimated(LongSupplier tableEstimate) {
+        return (key, exactCount) -> {
+            if (key.isFiltered()) {
+                throw new IllegalArgumentException("조건이 있는 조회에는 테이블 추정치를 쓸 수 없습니다: " + key);
+            }
+            return tableEstimate.getAsLong();
+        };
+    }
+
+    /**
+     * Slice 처럼 count 쿼리 없이 size + 1 건을 읽어서 다음 페이지가 있는지만 확인한다.
+     * 전체 건수는 지금까지 읽은 건수(+ 다음 페이지가 있으면 1)인 하한값이므로 hasNext 만 믿을 수 있다.
+     */
+    static CountStrategy slice() {
+        return SliceCountStrategy.INSTANCE;
+    }
+}
@@ -0,0 +1,203 @@
+package study.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 애플리케이션 시작 시 리포지토리 쿼리(@Query, 네임드 쿼리, 메소드 이름 쿼리)의 실행 계획을 H2 EXPLAIN 으로 확인한다.
+ * where 조건이 있는데 인덱스 없이 테이블 전체를 읽는 쿼리는 경고 로그를 남긴다.
+ * H2 가 아니면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "datajpa.query-index-check", name = "enabled", havingValue = "true")
+public class QueryIndexVerifier implements ApplicationRunner {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    private final ListableBeanFactory beanFactory;
+    private final EntityManagerFactory emf;
+    private final DataSource dataSource;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        verify().getFullScans().forEach((name, plan) -> log.warn("인덱스를 타지 않는 쿼리: {}\n{}", name, plan));
+    }
+
+    public QueryPlanReport verify() throws SQLException {
+        Map<String, String> plans = new LinkedHashMap<>();
+        Map<String, String> fullScans = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                return new QueryPlanReport(plans, fullScans);
+            }
+            collectSql().forEach((name, sql) -> {
+                String plan = sql != null ? explain(connection, name, sql) : null;
+                plans.put(name, plan);
+                if (plan != null && plan.contains(TABLE_SCAN) && sql.toLowerCase().contains(" where ")) {
+                    fullScans.put(name, plan);
+                }
+            });
+        }
+        return new QueryPlanReport(plans, fullScans);
+    }
+
+    private String explain(Connection connection, String name, String sql) {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null); // 실행 계획만 보므로 값은 상관없다.
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            log.warn("실행 계획을 확인할 수 없습니다. {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 쿼리 이름(리포지토리.메소드 또는 네임드 쿼리 이름)별 SQL. SQL 로 변환하지 못한 쿼리는 null
+     */
+    private Map<String, String> collectSql() {
+        Map<String, String> sqls = new LinkedHashMap<>();
+
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                putJpql(sqls, namedQuery.name(), namedQuery.query());
+            }
+        }
+
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            String entityName = emf.getMetamodel().entity(domainType).getName();
+            for (Method method : information.getQueryMethods()) {
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                Query query = method.getAnnotation(Query.class);
+                if (query != null && StringUtils.hasText(query.value())) {
+                    if (query.nativeQuery()) {
+                        sqls.put(name, query.value());
+                    } else {
+                        putJpql(sqls, name, query.value());
+                    }
+                } else if (query == null || !StringUtils.hasText(query.name())) {
+                    putJpql(sqls, name, derivedJpql(entityName, domainType, method));
+                }
+            }
+        }
+        return sqls;
+    }
+
+    private void putJpql(Map<String, String> sqls, String name, String jpql) {
+        if (jpql == null) {
+            sqls.put(name, null);
+            return;
+        }
+        try {
+            String[] sql = emf.unwrap(SessionFactoryImplementor.class).getQueryPlanCache()
+                    .getHQLQueryPlan(jpql, false, Collections.emptyMap())
+                    .getSqlStrings();
+            for (int i = 0; i < sql.length; i++) {
+                sqls.put(sql.length == 1 ? name : name + "#" + i, sql[i]);
+            }
+        } catch (RuntimeException e) {
+            log.warn("SQL 로 변환할 수 없는 쿼리입니다. {}: {}", name, e.getMessage());
+            sqls.put(name, null);
+        }
+    }
+
+    /**
+     * 메소드 이름 쿼리의 where 절만 JPQL 로 만든다. 실행 계획 확인용이라 정렬, 페이징은 무시한다.
+     * 지원하지 않는 조건이 있으면 null
+     */
+    private static String derivedJpql(String entityName, Class<?> domainType, Method method) {
+        PartTree tree;
+        try {
+            tree = new PartTree(method.getName(), domainType);
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        List<String> ors = new ArrayList<>();
+        int parameter = 0;
+        for (PartTree.OrPart orPart : tree) {
+            List<String> ands = new ArrayList<>();
+            for (Part part : orPart) {
+                String path = "x." + part.getProperty().toDotPath();
+                String predicate = predicate(part.getType(), path, parameter);
+                if (predicate == null) {
+                    return null;
+                }
+                ands.add(predicate);
+                parameter += part.getNumberOfArguments();
+            }
+            ors.add(String.join(" and ", ands));
+        }
+
+        String jpql = "select x from " + entityName + " x";
+        return ors.isEmpty() ? jpql : jpql + " where " + String.join(" or ", ors);
+    }
+
+    private static String predicate(Part.Type type, String path, int parameter) {
+        String p = ":p" + parameter;
+        switch (type) {
+            case SIMPLE_PROPERTY:
+                return path + " = " + p;
+            case NEGATING_SIMPLE_PROPERTY:
+                return path + " <> " + p;
+            case GREATER_THAN:
+            case AFTER:
+                return path + " > " + p;
+            case GREATER_THAN_EQUAL:
+                return path + " >= " + p;
+            case LESS_THAN:
+            case BEFORE:
+                return path + " < " + p;
+            case LESS_THAN_EQUAL:
+                return path + " <= " + p;
+            case BETWEEN:
+                return path + " between " + p + " and :p" + (parameter + 1);
+            case LIKE:
+            case STARTING_WITH:
+                return path + " like " + p;
+            case IN:
+                return path + " in (" + p + ")";
+            case IS_NULL:
+                return path + " is null";
+            case IS_NOT_NULL:
+                return path + " is not null";
+            default:
+                return null;
+        }
+    }
+}
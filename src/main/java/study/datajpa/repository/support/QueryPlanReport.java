@@ -0,0 +1,24 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * {@link QueryIndexVerifier} 가 확인한 리포지토리 쿼리별 실행 계획. H2 가 아니면 둘 다 비어 있다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class QueryPlanReport {
+
+    /**
+     * 쿼리 이름별 실행 계획. SQL 로 변환하지 못했거나 EXPLAIN 이 실패한 쿼리는 null
+     */
+    private final Map<String, String> plans;
+
+    /**
+     * plans 중 where 조건이 있는데 인덱스 없이 테이블 전체를 읽는 쿼리
+     */
+    private final Map<String, String> fullScans;
+}
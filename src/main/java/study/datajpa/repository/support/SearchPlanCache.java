@@ -0,0 +1,57 @@
+package study.datajpa.repository.support;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * 검색 조건 조합(shape)별로 만든 JPQL 을 재사용한다.
+ * JPQL 문자열이 같으면 하이버네이트 query plan cache 에서 파싱/SQL 변환 결과도 재사용되므로,
+ * 반복 검색은 파라미터 바인딩만 하면 된다. (@Query 로 선언한 쿼리와 같은 비용)
+ * Specification 은 조건 조합을 밖에서 알 수 없는 람다라서 이 캐시를 거치지 않는다. 반복 검색은 MemberSearchRepository 를 사용한다.
+ */
+@Component
+public class SearchPlanCache {
+
+    private final Map<String, Map<Integer, String>> plans = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder(); // 동시에 miss 가 나도 JPQL 은 한 번만 만들어서 넣는다.
+
+    /**
+     * @param name  검색 종류, 같은 shape 값이라도 name 이 다르면 다른 쿼리다.
+     * @param shape 사용한 조건의 bit mask
+     */
+    public String get(String name, int shape, IntFunction<String> compiler) {
+        Map<Integer, String> byShape = plans.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+        String jpql = byShape.get(shape);
+        if (jpql != null) {
+            hits.increment();
+            return jpql;
+        }
+        misses.increment();
+        return byShape.computeIfAbsent(shape, key -> {
+            puts.increment();
+            return compiler.apply(key);
+        });
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public int size() {
+        return plans.values().stream().mapToInt(Map::size).sum();
+    }
+}
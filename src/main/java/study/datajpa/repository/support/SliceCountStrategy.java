@@ -0,0 +1,42 @@
+package study.datajpa.repository.support;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link CountStrategy#slice()}
+ */
+enum SliceCountStrategy implements CountStrategy {
+
+    INSTANCE;
+
+    /**
+     * 페이지가 아니라 건수 자체를 물으면 count 쿼리를 실행할 수밖에 없다.
+     */
+    @Override
+    public long count(CountKey key, LongSupplier exactCount) {
+        return exactCount.getAsLong();
+    }
+
+    @Override
+    public <T> Page<T> page(TypedQuery<T> query, Pageable pageable, CountKey key, LongSupplier exactCount) {
+        if (pageable.isUnpaged()) {
+            List<T> content = query.getResultList();
+            return new PageImpl<>(content, pageable, content.size());
+        }
+
+        List<T> content = query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new PageImpl<>(content, pageable, pageable.getOffset() + content.size() + (hasNext ? 1 : 0));
+    }
+}
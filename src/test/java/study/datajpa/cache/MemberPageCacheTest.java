@@ -0,0 +1,99 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커밋 이후에 무효화되므로 테스트 트랜잭션 없이 실행한다.
+@SpringBootTest
+class MemberPageCacheTest {
+
+    @Autowired
+    MemberPageCache memberPageCache;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void invalidateOnCommit() {
+        //given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger loads = new AtomicInteger();
+        PageRequest first = PageRequest.of(0, 5, Sort.by("id"));
+        PageRequest second = PageRequest.of(1, 5, Sort.by("id"));
+        memberRepository.bulkAgePlus(Integer.MAX_VALUE); // 변경 대상은 없지만 캐시는 비워진다.
+
+        MemberPageCache.Entry firstEntry = memberPageCache.get(first, pageable -> load(pageable, loads));
+        MemberPageCache.Entry secondEntry = memberPageCache.get(second, pageable -> load(pageable, loads));
+        assertThat(memberPageCache.get(first, pageable -> load(pageable, loads))).isSameAs(firstEntry);
+        assertThat(loads.get()).isEqualTo(2);
+
+        //when
+        Long id = firstEntry.getPage().getContent().get(0).getId();
+        tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() + 1);
+        });
+
+        //then
+        // 수정된 회원이 있는 첫 페이지만 다시 조회한다.
+        MemberPageCache.Entry reloaded = memberPageCache.get(first, pageable -> load(pageable, loads));
+        assertThat(reloaded).isNotSameAs(firstEntry);
+        assertThat(reloaded.getEtag()).isNotEqualTo(firstEntry.getEtag());
+        assertThat(memberPageCache.get(second, pageable -> load(pageable, loads))).isSameAs(secondEntry);
+        assertThat(loads.get()).isEqualTo(3);
+
+        tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() - 1);
+        });
+        memberRepository.bulkAgePlus(Integer.MAX_VALUE);
+        memberPageCache.get(second, pageable -> load(pageable, loads));
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void skipPutWhenInvalidatedWhileLoading() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        PageRequest page = PageRequest.of(0, 3, Sort.by("id"));
+        memberRepository.bulkAgePlus(Integer.MAX_VALUE);
+        long puts = memberPageCache.puts();
+
+        //when
+        // 조회하는 도중에 다른 트랜잭션이 커밋되어 무효화된 상황
+        memberPageCache.get(page, pageable -> {
+            Page<MemberDto> loaded = load(pageable, loads);
+            memberPageCache.onEntityChanged(EntityChangedEvent.bulk(Member.class));
+            return loaded;
+        });
+        memberPageCache.get(page, pageable -> load(pageable, loads));
+        memberPageCache.get(page, pageable -> load(pageable, loads));
+
+        //then
+        // 첫 조회 결과는 캐시에 넣지 않았으므로 두 번째 조회는 다시 읽고, 세 번째는 캐시에서 읽는다.
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(memberPageCache.puts()).isEqualTo(puts + 1);
+    }
+
+    private Page<MemberDto> load(Pageable pageable, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return memberRepository.findMemberDtoPage(pageable);
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedAsyncTaskExecutorTest {
+
+    @Test
+    public void cancelKeepsPermitUntilTaskFinishes() throws Exception {
+        //given
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        BoundedAsyncTaskExecutor executor = new BoundedAsyncTaskExecutor(pool, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            Future<?> future = executor.submit(() -> {
+                started.countDown();
+                release.await(); // 인터럽트를 무시하는 JDBC 호출처럼 취소되어도 계속 실행된다.
+                return null;
+            });
+            started.await();
+
+            //when
+            future.cancel(false);
+
+            //then
+            // 작업이 아직 실행 중이므로 한도를 넘겨 받지 않는다.
+            assertThat(executor.getAvailablePermits()).isZero();
+            assertThatThrownBy(() -> executor.submit(() -> null)).isInstanceOf(TaskRejectedException.class);
+
+            release.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.getAvailablePermits()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeWithStartTimeoutWaitsForPermit() throws Exception {
+        //given
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        BoundedAsyncTaskExecutor executor = new BoundedAsyncTaskExecutor(pool, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch waited = new CountDownLatch(1);
+
+        try {
+            executor.submit(() -> {
+                release.await();
+                return null;
+            });
+
+            //when, then
+            // 자리가 나지 않으면 startTimeout 만큼 기다린 뒤 거절한다.
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> executor.execute(() -> { }, 100))
+                    .isInstanceOf(TaskRejectedException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(100);
+
+            // 기다리는 동안 자리가 나면 실행한다.
+            pool.execute(release::countDown);
+            executor.execute(waited::countDown, 5_000);
+            assertThat(waited.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+}
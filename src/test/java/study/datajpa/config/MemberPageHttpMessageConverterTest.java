@@ -0,0 +1,59 @@
+package study.datajpa.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Team;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberPageHttpMessageConverterTest {
+
+    MemberPageHttpMessageConverter converter = new MemberPageHttpMessageConverter(new JsonFactory());
+
+    @Test
+    public void writeCompactPage() throws Exception {
+        //given
+        Page<MemberDto> page = new PageImpl<>(Arrays.asList(
+                new MemberDto(1L, "member1", "teamA"),
+                new MemberDto(2L, "member2", null)), PageRequest.of(0, 2), 5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        converter.write(page, out);
+
+        //then
+        String json = out.toString(StandardCharsets.UTF_8.name());
+        assertThat(json).isEqualTo("{\"content\":[" +
+                "{\"id\":1,\"username\":\"member1\",\"teamName\":\"teamA\"}," +
+                "{\"id\":2,\"username\":\"member2\",\"teamName\":null}]," +
+                "\"page\":0,\"size\":2,\"total\":5,\"hasNext\":true}");
+    }
+
+    @Test
+    public void onlyForExplicitMediaType() {
+        Type memberPage = ResolvableType.forClassWithGenerics(Page.class, MemberDto.class).getType();
+        assertThat(converter.canWrite(memberPage, PageImpl.class, MemberPageHttpMessageConverter.MEDIA_TYPE)).isTrue();
+        assertThat(converter.canWrite(memberPage, PageImpl.class, null)).isFalse();
+        assertThat(converter.canWrite(memberPage, PageImpl.class, MediaType.ALL)).isFalse();
+        assertThat(converter.canWrite(memberPage, PageImpl.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    public void onlyForMemberDtoPage() {
+        Type teamPage = ResolvableType.forClassWithGenerics(Page.class, Team.class).getType();
+        assertThat(converter.canWrite(teamPage, PageImpl.class, MemberPageHttpMessageConverter.MEDIA_TYPE)).isFalse();
+        assertThat(converter.canWrite(PageImpl.class, PageImpl.class, MemberPageHttpMessageConverter.MEDIA_TYPE)).isFalse();
+        assertThat(converter.canWrite(PageImpl.class, MemberPageHttpMessageConverter.MEDIA_TYPE)).isFalse();
+    }
+}
@@ -0,0 +1,48 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadOnlyRoutingDataSourceTest {
+
+    @Test
+    public void routeReadOnlyTransactionToReplica() {
+        //given
+        // 두 번째 인메모리 H2 를 레플리카 대신 사용한다.
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadOnlyRoutingDataSource.Target.PRIMARY, h2("primary"));
+        targets.put(ReadOnlyRoutingDataSource.Target.REPLICA, h2("replica"));
+
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        //when
+        String writeDatabase = readWrite.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+        String readDatabase = readOnly.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+
+        //then
+        assertThat(writeDatabase).isEqualToIgnoringCase("primary");
+        assertThat(readDatabase).isEqualToIgnoringCase("replica");
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 프라이머리와 레플리카 대신 인메모리 H2 두 개를 사용한다. 스키마는 프라이머리에만 생성된다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.replica.username=sa"})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Test
+    public void writeAfterReadInSameEntityManager() {
+        //given
+        // OSIV 처럼 EntityManager 하나를 스레드에 묶어두고 트랜잭션 두 개가 같이 사용한다.
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        try {
+            //when
+            String readDatabase = readOnly.execute(status -> currentDatabase(em));
+            String writeDatabase = readWrite.execute(status -> {
+                memberRepository.save(Member.builder().username("replicaWrite").age(1).build());
+                em.flush();
+                return currentDatabase(em);
+            });
+
+            //then
+            assertThat(readDatabase).isEqualToIgnoringCase("replica");
+            assertThat(writeDatabase).isEqualToIgnoringCase("primary");
+            Long written = new JdbcTemplate(primaryDataSource)
+                    .queryForObject("select count(*) from member where username = ?", Long.class, "replicaWrite");
+            assertThat(written).isEqualTo(1L);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            em.close();
+        }
+    }
+
+    private static String currentDatabase(EntityManager em) {
+        return (String) em.createNativeQuery("select database()").getSingleResult();
+    }
+}
@@ -10,6 +10,7 @@ import study.datajpa.repository.MemberRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -113,4 +114,20 @@ class MemberTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void auditorResolvedOncePerTransaction() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1"));
+        Member member2 = memberRepository.save(new Member("member2"));
+        em.flush();
+
+        //when
+        LocalDateTime lastModifiedDate = member1.getLastModifiedDate();
+        em.flush(); // 바뀐 필드가 없으면 @PreUpdate 가 호출되지 않는다.
+
+        //then
+        assertThat(member1.getCreatedBy()).isNotNull().isEqualTo(member2.getCreatedBy());
+        assertThat(member1.getLastModifiedDate()).isEqualTo(lastModifiedDate);
+        assertThat(member1.getVersion()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    RepositoryMetrics repositoryMetrics;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void recordRepositoryCalls() {
+        //given
+        memberRepository.save(new Member("metrics", 10));
+        memberRepository.save(new Member("metrics", 20));
+        em.flush();
+        em.clear();
+        repositoryMetrics.reset();
+
+        //when
+        memberRepository.findByUsername("metrics");
+        memberRepository.findByUsername("metrics");
+
+        //then
+        List<MethodMetrics> snapshot = repositoryMetrics.snapshot();
+        MethodMetrics findByUsername = snapshot.stream()
+                .filter(metrics -> metrics.getName().equals("memberRepository.findByUsername(String)"))
+                .findFirst()
+                .get();
+        assertThat(findByUsername.getLatency().getCount()).isEqualTo(2);
+        assertThat(findByUsername.getRows().sum()).isEqualTo(4);
+        assertThat(findByUsername.getEntityLoads().sum()).isEqualTo(2); // 두 번째 조회는 영속성 컨텍스트에서 가져온다.
+    }
+}
@@ -3,8 +3,13 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -18,4 +23,30 @@ class ItemRepositoryTest {
         Item item = new Item("A");
         itemRepository.save(item);
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    public void insertAllAndMergeAll() {
+        //given
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            items.add(new Item("bulk-" + i));
+        }
+
+        //when
+        int inserted = itemRepository.insertAll(items, 100);
+
+        List<Item> overlapping = new ArrayList<>();
+        for (int i = 200; i < 300; i++) {
+            overlapping.add(new Item("bulk-" + i));
+        }
+        int merged = itemRepository.mergeAll(overlapping, 30);
+
+        //then
+        assertThat(inserted).isEqualTo(250);
+        assertThat(merged).isEqualTo(50);
+        assertThat(itemRepository.findById("bulk-299")).isPresent();
+        assertThat(items).noneMatch(Item::isNew);
+        assertThat(overlapping).noneMatch(Item::isNew);
+    }
+}
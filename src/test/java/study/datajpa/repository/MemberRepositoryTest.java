@@ -1,21 +1,46 @@
 package study.datajpa.repository;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.dto.UsernameAgeDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 import study.datajpa.repository.specification.MemberSpec;
+import study.datajpa.repository.support.CountStrategy;
+import study.datajpa.repository.support.OptimisticRetryExecutor;
+import study.datajpa.repository.support.SearchPlanCache;
 
 import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.datajpa.support.QueryCountAssertions.assertMaxStatements;
+import static study.datajpa.support.QueryCountAssertions.countStatements;
 
 @SpringBootTest
 @Transactional
@@ -30,6 +55,12 @@ class MemberRepositoryTest {
     @Autowired
     EntityManager em;
 
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    SearchPlanCache searchPlanCache;
+
     Member member1;
     Member member2;
     Member member3;
@@ -167,7 +198,9 @@ class MemberRepositoryTest {
         System.out.println("totalCount = " + memberPage.getTotalElements());
 
         assertThat(content.size()).isEqualTo(5);
-        assertThat(memberPage.getTotalElements()).isEqualTo(20);
+        assertThat(memberPage.getContent()).extracting(Member::getAge).containsOnly(age);
+        // 기본 count 전략은 slice 라서 전체 건수 대신 다음 페이지 여부만 정확하다.
+        assertThat(memberPage.hasNext()).isTrue();
         assertThat(memberPage.getNumber()).isEqualTo(0);
         assertThat(memberPage.isFirst()).isTrue();
     }
@@ -367,11 +400,14 @@ class MemberRepositoryTest {
         //when
         List<Member> m1 = memberRepository.findByUsername("m1");
         System.out.println("--------------");
-        List<UsernameOnly> m11 = memberRepository.findProjectionsByUsername("m1");
+        List<UsernameOnly> m11 = memberRepository.findProjectionsByUsername("m1"); // 닫힌 프로젝션 (username, age 만 조회)
+        List<UsernameAgeDto> m12 = memberRepository.findDtoByUsername("m1"); // 클래스 프로젝션
         System.out.println("--------------");
-        // 오픈 프로젝션 (엔티티 전체를 우선 다 가져온다.)
         memberRepository.findByUsernameAndAge("m1",0);
 
+        //then
+        assertThat(m11).extracting(UsernameOnly::getUsernameAndAge).containsOnly("m1 0");
+        assertThat(m12).extracting(UsernameAgeDto::getUsernameAndAge).containsOnly("m1 0");
     }
 
     @Test
@@ -400,6 +436,429 @@ class MemberRepositoryTest {
             System.out.println("-------------------");
         }
 
+        Page<MemberDto> dtoPage = memberRepository.findMemberDtoPageNative(PageRequest.of(0, 5));
+        assertThat(dtoPage.getTotalElements()).isEqualTo(result.getTotalElements());
+        assertThat(dtoPage.getContent()).hasSameSizeAs(content);
+
+        Page<MemberDto> sortedPage = memberRepository.findMemberDtoPageNative(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")));
+        assertThat(sortedPage.getContent()).extracting(MemberDto::getId).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThatThrownBy(() -> memberRepository.findMemberDtoPageNative(PageRequest.of(0, 5, Sort.by("age"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("noBeforeEach")
+    public void keysetPaging() {
+        //given
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(Member.builder().username("AAA" + (9 - i)).age(10).build());
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> firstById = memberRepository.findMembersAfterId(null, 4);
+        Member lastById = firstById.get(firstById.size() - 1);
+        List<Member> secondById = memberRepository.findMembersAfterId(lastById.getId(), 4);
+
+        List<Member> firstByUsername = memberRepository.findMembersAfterUsername(null, null, 4);
+        Member lastByUsername = firstByUsername.get(firstByUsername.size() - 1);
+        List<Member> secondByUsername = memberRepository.findMembersAfterUsername(lastByUsername.getUsername(), lastByUsername.getId(), 4);
+
+        //then
+        assertThat(secondById).hasSize(4);
+        assertThat(secondById.get(0).getId()).isGreaterThan(lastById.getId());
+
+        assertThat(firstByUsername).extracting(Member::getUsername).containsExactly("AAA0", "AAA1", "AAA2", "AAA3");
+        assertThat(secondByUsername).extracting(Member::getUsername).containsExactly("AAA4", "AAA5", "AAA6", "AAA7");
+    }
+
+    @Test
+    public void exportMembers() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        member1.changeTeam(teamA);
+        em.flush();
+        em.clear();
+
+        //when
+        List<String> exported = new ArrayList<>();
+        long count = memberRepository.exportMembers(2, 2,
+                member -> exported.add(member.getUsername() + ":" + (member.getTeam() != null ? member.getTeam().getName() : null)));
+
+        //then
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(exported).containsSubsequence("AAA:teamA", "AAA:null", "BBB:null");
+    }
+
+    @Test
+    public void saveAllBatchedKeepsOtherEntitiesManaged() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(Member.builder().username("batched").age(i).build());
+        }
+
+        //when
+        memberRepository.saveAllBatched(members, 2);
+
+        //then
+        assertThat(em.contains(member1)).isTrue(); // 이미 관리되던 엔티티는 그대로
+        assertThat(members).noneMatch(em::contains);
+        assertThatThrownBy(() -> memberRepository.saveAllBatched(members, 0))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("noBeforeEach")
+    public void exportMembersRejectsInvalidArguments() {
+        // 리포지토리 프록시가 IllegalArgumentException 을 스프링 예외로 바꿔서 던진다.
+        assertThatThrownBy(() -> memberRepository.exportMembers(0, 100, member -> { }))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.exportMembers(100, 0, member -> { }))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("noBeforeEach")
+    public void saveAllBatchedUsesJdbcBatches() {
+        //given
+        int rows = 250;
+        int batchSize = 100;
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            members.add(Member.builder().username("batch" + i).age(i).build());
+        }
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        int saved = memberRepository.saveAllBatched(members, batchSize);
+
+        //then
+        // insert 는 batchSize 건마다 PreparedStatement 하나로 묶인다. 나머지는 시퀀스 조회(allocationSize 50)다.
+        long insertBatches = (rows + batchSize - 1) / batchSize;
+        long sequenceCalls = rows / 50 + 1;
+        assertThat(saved).isEqualTo(rows);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(insertBatches + sequenceCalls);
+    }
+
+    @Test
+    @DisplayName("noBeforeEach")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 청크마다 커밋되므로 테스트 트랜잭션 밖에서 실행한다.
+    public void bulkAgePlusInChunks() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            members.add(Member.builder().username("chunk").age(i + 10).build());
+        }
+        memberRepository.saveAllBatched(members, 100);
+
+        try {
+            //when
+            List<BulkUpdateProgress> progresses = new ArrayList<>();
+            int updated = memberRepository.bulkAgePlusInChunks("chunk", 15, 7, progresses::add);
+
+            //then
+            assertThat(updated).isEqualTo(15);
+            assertThat(progresses).extracting(BulkUpdateProgress::getUpdatedInChunk).containsExactly(7, 7, 1);
+            assertThat(progresses).extracting(BulkUpdateProgress::getUpdatedTotal).containsExactly(7, 14, 15);
+            BulkUpdateProgress last = progresses.get(progresses.size() - 1);
+            assertThat(last.getChunk()).isEqualTo(last.getTotalChunks());
+            assertThat(memberRepository.findByUsername("chunk"))
+                    .extracting(Member::getAge)
+                    .allMatch(age -> age <= 15)
+                    .filteredOn(age -> age == 15)
+                    .hasSize(15);
+        } finally {
+            memberRepository.deleteAll(memberRepository.findByUsername("chunk"));
+        }
+    }
 
+    @Test
+    @DisplayName("noBeforeEach")
+    public void batchFetchTeamsInPage() {
+        //given
+        for (int i = 0; i < 10; i++) {
+            Team team = new Team("team" + i);
+            teamRepository.save(team);
+            for (int j = 0; j < 10; j++) {
+                memberRepository.save(Member.builder().username("batch" + i + j).age(j).team(team).build());
+            }
+        }
+        em.flush();
+        em.clear();
+
+        // 2차 캐시 적중 여부와 상관없이 쿼리 수만 비교한다.
+        em.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : new int[]{5, 20, 50}) {
+            em.clear();
+            statistics.clear();
+
+            //when
+            Page<MemberDto> page = memberRepository.findAll(PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")))
+                    .map(MemberDto::new);
+
+            //then
+            // 회원 조회 + count + team in 절 조회. 페이지 크기와 상관없이 일정하다.
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    public void findMemberDtoPage() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        member1.changeTeam(teamA);
+        em.flush();
+        em.clear();
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+        Slice<MemberDto> slice = memberRepository.findMemberDtoSlice(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        //then
+        assertThat(page.getContent()).extracting(MemberDto::getId).containsExactly(member3.getId(), member2.getId());
+        assertThat(page.getTotalElements()).isEqualTo(memberRepository.count());
+        assertThat(slice.getContent()).extracting(MemberDto::getTeamName).containsOnlyNulls();
+        assertThat(slice.hasNext()).isTrue();
+    }
+
+    @Test
+    public void cachedCountStrategy() {
+        //given
+        CountStrategy cached = CountStrategy.cached(Duration.ofMinutes(1));
+        PageRequest firstPage = PageRequest.of(0, 1, Sort.by("id"));
+
+        //when
+        Page<Member> before = memberRepository.findPageByAge(20, firstPage, cached);
+        memberRepository.save(Member.builder().username("CCC").age(20).build());
+        Page<Member> cachedPage = memberRepository.findPageByAge(20, firstPage, cached);
+        Page<Member> exactPage = memberRepository.findPageByAge(20, firstPage, CountStrategy.exact());
+        Slice<Member> slice = memberRepository.findSliceByAge(20, firstPage);
+
+        //then
+        assertThat(cachedPage.getTotalElements()).isEqualTo(before.getTotalElements()); // ttl 동안은 이전 count 를 재사용한다.
+        assertThat(exactPage.getTotalElements()).isEqualTo(before.getTotalElements() + 1);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(memberRepository.estimateMemberCount()).isNotNegative();
+    }
+
+    @Test
+    public void sliceIsDefaultCountStrategy() {
+        //given
+        PageRequest firstPage = PageRequest.of(0, 1, Sort.by("id"));
+        em.flush();
+
+        //when
+        List<Page<Member>> result = new ArrayList<>();
+        long statements = countStatements(() -> result.add(memberRepository.findByAge(20, firstPage)));
+        Page<Member> page = result.get(0);
+
+        //then
+        // count 쿼리 없이 2건을 읽어서 다음 페이지 여부만 판단한다.
+        assertThat(statements).isEqualTo(1);
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void estimatedCountRejectsFilteredQuery() {
+        CountStrategy estimated = CountStrategy.estimated(memberRepository::estimateMemberCount);
+
+        // 테이블 전체 추정치는 나이 조건과 상관없는 값이다.
+        // 리포지토리 프록시가 IllegalArgumentException 을 스프링 예외로 바꿔서 던진다.
+        assertThatThrownBy(() -> memberRepository.findPageByAge(20, PageRequest.of(0, 1), estimated))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void noNPlusOneWhenAccessingTeams() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+
+        member1.setTeam(teamA);
+        member2.setTeam(teamA);
+        member3.setTeam(teamB);
+
+        em.flush();
+        em.clear();
+
+        //when, then
+        // fetch join 이면 회원 수와 상관없이 SQL 한 번
+        assertMaxStatements(1, () -> memberRepository.findMemberFetchJoin()
+                .forEach(member -> member.getTeam().getName()));
+    }
+
+    @Test
+    public void searchReusesCompiledQuery() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        member1.setTeam(teamA);
+        member3.setTeam(teamA);
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("AAA");
+        condition.setTeamName("teamA");
+        memberRepository.search(condition); // 처음 보는 조건 조합이면 여기서 JPQL 을 만든다.
+        long hits = searchPlanCache.getHits();
+        long misses = searchPlanCache.getMisses();
+        long puts = searchPlanCache.getPuts();
+
+        //when
+        condition.setUsername("BBB");
+        List<Member> result = memberRepository.search(condition);
+
+        //then
+        assertThat(result).extracting("username").containsExactly("BBB");
+        assertThat(searchPlanCache.getHits()).isEqualTo(hits + 1);
+        assertThat(searchPlanCache.getMisses()).isEqualTo(misses);
+        assertThat(searchPlanCache.getPuts()).isEqualTo(puts);
+    }
+
+    @Test
+    public void searchWithRangeAndInFilters() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        teamRepository.save(teamC);
+        member1.setTeam(teamA);
+        member2.setTeam(teamB);
+        member3.setTeam(teamC);
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("AA");
+        condition.setAgeGoe(15);
+        condition.setAgeLoe(30);
+        condition.setTeamNames(Arrays.asList("teamA", "teamB"));
+
+        //when
+        List<Member> result = memberRepository.search(condition);
+        List<Member> specResult = memberRepository.findAll(MemberSpec.usernameStartsWith("AA")
+                .and(MemberSpec.ageBetween(15, 30))
+                .and(MemberSpec.teamNameIn(Arrays.asList("teamA", "teamB"))));
+
+        condition.setAgeGoe(null);
+        condition.setLimit(1);
+        List<Member> limited = memberRepository.search(condition);
+
+        //then
+        assertThat(result).extracting("id").containsExactly(member2.getId());
+        assertThat(specResult).extracting("id").containsExactly(member2.getId());
+        assertThat(limited).extracting("id").containsExactly(member1.getId());
+    }
+
+    @Test
+    @DisplayName("noBeforeEach")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 스레드마다 각자 커밋해야 충돌이 생긴다.
+    public void concurrentAgeUpdates() throws Exception {
+        //given
+        Long id = memberRepository.save(Member.builder().username("contention").age(0).build()).getId();
+        int threads = 8;
+        int updates = 20;
+        OptimisticRetryExecutor retryExecutor = new OptimisticRetryExecutor(transactionManager, 1000, 5);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        try {
+            //when
+            runConcurrently(threads, updates, () -> retryExecutor.execute(status -> {
+                Member member = memberRepository.findById(id).get();
+                member.setAge(member.getAge() + 1);
+                return null;
+            }));
+            runConcurrently(threads, updates, () -> tx.execute(status -> {
+                Member member = memberRepository.findByIdForUpdate(id).get();
+                member.setAge(member.getAge() + 1);
+                return null;
+            }));
+
+            //then
+            Member member = memberRepository.findById(id).get();
+            assertThat(member.getAge()).isEqualTo(threads * updates * 2); // 유실된 수정이 없다.
+            assertThat(member.getVersion()).isEqualTo(threads * updates * 2L);
+        } finally {
+            memberRepository.deleteById(id);
+        }
+    }
+
+    /**
+     * @return 전체 소요 시간(ns)
+     */
+    private void runConcurrently(int threads, int updates, Runnable update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < updates; j++) {
+                    update.run();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void fetchPlans() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        member1.setTeam(teamA);
+        member2.setTeam(teamA);
+
+        em.flush();
+        em.clear();
+
+        //when
+        Page<Member> none = memberRepository.findAll(MemberFetchPlan.NONE, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+        em.clear();
+        Page<Member> team = memberRepository.findAll(MemberFetchPlan.TEAM, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+        em.clear();
+        List<Member> teamMembers = memberRepository.findAll(MemberFetchPlan.TEAM_MEMBERS);
+
+        //then
+        Member noneMember = none.getContent().stream().filter(m -> m.getId().equals(member1.getId())).findFirst().get();
+        Member teamMember = team.getContent().stream().filter(m -> m.getId().equals(member1.getId())).findFirst().get();
+        Member teamMembersMember = teamMembers.stream().filter(m -> m.getId().equals(member1.getId())).findFirst().get();
+        assertThat(Hibernate.isInitialized(noneMember.getTeam())).isFalse();
+        assertThat(Hibernate.isInitialized(teamMember.getTeam())).isTrue();
+        assertThat(Hibernate.isInitialized(teamMember.getTeam().getMembers())).isFalse();
+        assertThat(Hibernate.isInitialized(teamMembersMember.getTeam().getMembers())).isTrue();
+        assertThat(teamMembersMember.getTeam().getMembers()).hasSize(2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.datajpa.support.QueryCountAssertions.countStatements;
+
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void secondLevelCache() {
+        //given
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            //when
+            teamRepository.findById(team.getId());
+            teamRepository.findById(team.getId());
+
+            team.setName("renamedTeam");
+            teamRepository.save(team);
+            Team renamed = teamRepository.findById(team.getId()).get();
+
+            //then
+            // 트랜잭션(영속성 컨텍스트)이 매번 새로 열리지만 DB 대신 2차 캐시에서 읽는다.
+            assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+            assertThat(renamed.getName()).isEqualTo("renamedTeam");
+        } finally {
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    public void secondLevelCacheAfterBulkUpdate() {
+        //given
+        Team team = teamRepository.save(new Team("bulkCachedTeam"));
+        teamRepository.findById(team.getId());
+        teamRepository.findByName("bulkCachedTeam"); // 쿼리 캐시에도 올려둔다.
+
+        try {
+            //when
+            // JPQL 벌크 update 는 영속성 컨텍스트와 2차 캐시를 거치지 않고 DB 를 직접 바꾼다.
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    em.createQuery("update Team t set t.name = :name where t.id = :id")
+                            .setParameter("name", "bulkRenamedTeam")
+                            .setParameter("id", team.getId())
+                            .executeUpdate());
+
+            //then
+            // Hibernate 가 Team 캐시 영역과 관련 쿼리 캐시를 무효화하므로 바뀐 값을 읽는다.
+            assertThat(teamRepository.findById(team.getId()).get().getName()).isEqualTo("bulkRenamedTeam");
+            assertThat(teamRepository.findByName("bulkCachedTeam")).isEmpty();
+            assertThat(teamRepository.findByName("bulkRenamedTeam")).extracting(Team::getId).containsExactly(team.getId());
+        } finally {
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void findTeamsWithMembers() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            Team team = teamRepository.save(new Team("zpaged" + i));
+            for (int j = 0; j <= i; j++) {
+                em.persist(new Member("paged" + i + j, j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "name"));
+        List<Page<Team>> result = new ArrayList<>();
+        long statements = countStatements(() -> result.add(teamRepository.findTeamsWithMembers(pageable)));
+        Page<Team> page = result.get(0);
+
+        //then
+        // 팀 id 조회, 팀 + members 조회, count 조회. 팀 수와 상관없다.
+        assertThat(statements).isLessThanOrEqualTo(3);
+        assertThat(page.getContent()).extracting(Team::getName).containsExactly("zpaged4", "zpaged3");
+        assertThat(page.getContent()).allMatch(team -> Hibernate.isInitialized(team.getMembers()));
+        assertThat(page.getContent().get(0).getMembers()).hasSize(5);
+        assertThat(page.getContent().get(1).getMembers()).hasSize(4);
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    @Transactional
+    public void batchFetchMembersInTeamPage() {
+        //given
+        for (int i = 0; i < 10; i++) {
+            Team team = teamRepository.save(new Team("zbatch" + i));
+            for (int j = 0; j < 3; j++) {
+                em.persist(new Member("batch" + i + j, j, team));
+            }
+        }
+        em.flush();
+
+        for (int size : new int[]{2, 5, 10}) {
+            em.clear();
+
+            //when
+            long statements = countStatements(() -> {
+                Page<Team> page = teamRepository.findAll(PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "name")));
+                page.getContent().forEach(team -> team.getMembers().size());
+            });
+
+            //then
+            // 팀 조회 + count + members in 절 조회. 팀 수와 상관없이 일정하다.
+            assertThat(statements).isLessThanOrEqualTo(3);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 진단 기능이라 기본으로 꺼져 있다. 이 테스트에서만 켠다.
+@SpringBootTest(properties = "datajpa.query-index-check.enabled=true")
+class QueryIndexVerifierTest {
+
+    @Autowired
+    QueryIndexVerifier queryIndexVerifier;
+
+    @Test
+    public void repositoryQueriesUseIndexes() throws Exception {
+        //when
+        QueryPlanReport report = queryIndexVerifier.verify();
+
+        //then
+        Map<String, String> expectedIndexes = new LinkedHashMap<>();
+        expectedIndexes.put("MemberRepository.findByUsername", "IDX_MEMBER_USERNAME_AGE");
+        expectedIndexes.put("MemberRepository.findByUsernameAndAge", "IDX_MEMBER_USERNAME_AGE");
+        expectedIndexes.put("MemberRepository.findByUsernameAndAgeGreaterThan", "IDX_MEMBER_USERNAME_AGE");
+        expectedIndexes.put("MemberRepository.findByNativeQuery", "IDX_MEMBER_USERNAME_AGE");
+        expectedIndexes.put("Member.finByUsername", "IDX_MEMBER_USERNAME_AGE");
+        expectedIndexes.put("TeamRepository.findByName", "IDX_TEAM_NAME");
+        // 쿼리가 목록에서 빠지거나 EXPLAIN 이 실패해도 통과하지 않도록 실행 계획이 있는지부터 확인한다.
+        expectedIndexes.forEach((name, index) -> assertThat(report.getPlans().get(name))
+                .as(name)
+                .isNotNull()
+                .containsIgnoringCase(index));
+        assertThat(report.getFullScans()).doesNotContainKeys(expectedIndexes.keySet().toArray(new String[0]));
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.support;
+
+import study.datajpa.metrics.QueryCountInspector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 블록 안에서 실행된 SQL 수를 검증한다. N+1 회귀를 테스트에서 잡기 위해 사용한다.
+ * 쓰기 SQL 까지 세려면 블록 안에서 flush 해야 한다.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static long countStatements(Runnable block) {
+        long before = QueryCountInspector.currentCount();
+        block.run();
+        return QueryCountInspector.currentCount() - before;
+    }
+
+    public static void assertMaxStatements(long max, Runnable block) {
+        assertThat(countStatements(block))
+                .as("실행된 SQL 수")
+                .isLessThanOrEqualTo(max);
+    }
+}